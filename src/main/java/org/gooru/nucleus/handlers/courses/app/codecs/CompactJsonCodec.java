@@ -0,0 +1,239 @@
+package org.gooru.nucleus.handlers.courses.app.codecs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Codec for replies and events, which are JsonObject.
+ * <p>
+ * Local delivery hands over the same instance to the receiver instead of a
+ * copy, so sender should not modify the object once sent. Clustered delivery
+ * uses a tagged binary form instead of JSON text: every value is a type byte
+ * followed by the value. Lengths, counts and integers are written as variable
+ * length integers, so small values take a byte or two, and strings as UTF-8
+ * bytes. Whole message is prefixed with its length like the built in codecs
+ * do.
+ */
+public final class CompactJsonCodec implements MessageCodec<JsonObject, JsonObject> {
+
+    public static final String NAME = "nucleus-course-compact-json";
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_FLOAT = 5;
+    private static final byte TYPE_TRUE = 6;
+    private static final byte TYPE_FALSE = 7;
+    private static final byte TYPE_OBJECT = 8;
+    private static final byte TYPE_ARRAY = 9;
+    private static final byte TYPE_BINARY = 10;
+
+    @Override
+    public void encodeToWire(Buffer buffer, JsonObject jsonObject) {
+        int lengthPos = buffer.length();
+        buffer.appendInt(0);
+        writeObject(buffer, jsonObject.getMap());
+        buffer.setInt(lengthPos, buffer.length() - lengthPos - 4);
+    }
+
+    @Override
+    public JsonObject decodeFromWire(int pos, Buffer buffer) {
+        Reader reader = new Reader(buffer, pos + 4);
+        reader.expect(TYPE_OBJECT);
+        return reader.readObject();
+    }
+
+    @Override
+    public JsonObject transform(JsonObject jsonObject) {
+        return jsonObject;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+
+    private static void writeObject(Buffer buffer, Map<String, Object> map) {
+        buffer.appendByte(TYPE_OBJECT);
+        writeVarLong(buffer, map.size());
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            writeBytes(buffer, entry.getKey().getBytes(StandardCharsets.UTF_8));
+            writeValue(buffer, entry.getValue());
+        }
+    }
+
+    private static void writeArray(Buffer buffer, Iterable<?> values, int size) {
+        buffer.appendByte(TYPE_ARRAY);
+        writeVarLong(buffer, size);
+        for (Object value : values) {
+            writeValue(buffer, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(Buffer buffer, Object value) {
+        if (value == null) {
+            buffer.appendByte(TYPE_NULL);
+        } else if (value instanceof CharSequence) {
+            buffer.appendByte(TYPE_STRING);
+            writeBytes(buffer, value.toString().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            buffer.appendByte(TYPE_INT);
+            writeVarLong(buffer, zigZag(((Number) value).intValue()));
+        } else if (value instanceof Long) {
+            buffer.appendByte(TYPE_LONG);
+            writeVarLong(buffer, zigZag((Long) value));
+        } else if (value instanceof Double) {
+            buffer.appendByte(TYPE_DOUBLE).appendDouble((Double) value);
+        } else if (value instanceof Float) {
+            buffer.appendByte(TYPE_FLOAT).appendFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            buffer.appendByte((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+        } else if (value instanceof JsonObject) {
+            writeObject(buffer, ((JsonObject) value).getMap());
+        } else if (value instanceof Map) {
+            writeObject(buffer, (Map<String, Object>) value);
+        } else if (value instanceof JsonArray) {
+            writeArray(buffer, (JsonArray) value, ((JsonArray) value).size());
+        } else if (value instanceof List) {
+            writeArray(buffer, (List<?>) value, ((List<?>) value).size());
+        } else if (value instanceof byte[]) {
+            buffer.appendByte(TYPE_BINARY);
+            writeBytes(buffer, (byte[]) value);
+        } else {
+            throw new IllegalStateException("Unsupported type in JSON: " + value.getClass().getName());
+        }
+    }
+
+    private static void writeBytes(Buffer buffer, byte[] bytes) {
+        writeVarLong(buffer, bytes.length);
+        buffer.appendBytes(bytes);
+    }
+
+    private static void writeVarLong(Buffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.appendByte((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.appendByte((byte) value);
+    }
+
+    /*
+     * Maps signed values to unsigned ones so that small negative values also
+     * take few bytes
+     */
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static final class Reader {
+        private final Buffer buffer;
+        private int pos;
+
+        Reader(Buffer buffer, int pos) {
+            this.buffer = buffer;
+            this.pos = pos;
+        }
+
+        void expect(byte type) {
+            byte actual = readByte();
+            if (actual != type) {
+                throw new IllegalStateException("Unexpected type " + actual + " in message, expected " + type);
+            }
+        }
+
+        JsonObject readObject() {
+            long size = readVarLong();
+            JsonObject result = new JsonObject();
+            for (long i = 0; i < size; i++) {
+                String key = new String(readBytes(), StandardCharsets.UTF_8);
+                result.put(key, readValue());
+            }
+            return result;
+        }
+
+        JsonArray readArray() {
+            long size = readVarLong();
+            JsonArray result = new JsonArray();
+            for (long i = 0; i < size; i++) {
+                result.add(readValue());
+            }
+            return result;
+        }
+
+        Object readValue() {
+            byte type = readByte();
+            switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return new String(readBytes(), StandardCharsets.UTF_8);
+            case TYPE_INT:
+                return (int) readZigZag();
+            case TYPE_LONG:
+                return readZigZag();
+            case TYPE_DOUBLE:
+                double doubleValue = buffer.getDouble(pos);
+                pos += 8;
+                return doubleValue;
+            case TYPE_FLOAT:
+                float floatValue = buffer.getFloat(pos);
+                pos += 4;
+                return floatValue;
+            case TYPE_TRUE:
+                return Boolean.TRUE;
+            case TYPE_FALSE:
+                return Boolean.FALSE;
+            case TYPE_OBJECT:
+                return readObject();
+            case TYPE_ARRAY:
+                return readArray();
+            case TYPE_BINARY:
+                return readBytes();
+            default:
+                throw new IllegalStateException("Unknown type " + type + " in message");
+            }
+        }
+
+        private byte readByte() {
+            return buffer.getByte(pos++);
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        private long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private byte[] readBytes() {
+            int length = (int) readVarLong();
+            byte[] bytes = buffer.getBytes(pos, pos + length);
+            pos += length;
+            return bytes;
+        }
+    }
+}
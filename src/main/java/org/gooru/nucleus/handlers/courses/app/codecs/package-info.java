@@ -0,0 +1,7 @@
+package org.gooru.nucleus.handlers.courses.app.codecs;
+
+/**
+ * This package contains message codecs which are registered with the event
+ * bus by EventBusCodecs component. Modules receiving messages sent with these
+ * codecs over the clustered event bus need to register them too
+ */
@@ -0,0 +1,155 @@
+package org.gooru.nucleus.handlers.courses.app.components;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.gooru.nucleus.handlers.courses.bootstrap.shutdown.Finalizer;
+import org.gooru.nucleus.handlers.courses.bootstrap.startup.Initializer;
+import org.gooru.nucleus.handlers.courses.constants.MessagebusEndpoints;
+import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.CourseCopier;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.EventOutbox;
+import org.javalite.activejdbc.Base;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Runs copies of large courses in background, so that request is answered
+ * right away with the id the copy will get, and does not hold a worker thread
+ * of event bus for the whole copy.
+ * <p>
+ * Copies are run by a fixed number of threads from a bounded queue, each in its
+ * own transaction, and copy event is sent, or written to outbox along with the
+ * copy when outbox relay is enabled, once the copy is committed. Copy
+ * which fails is rolled back and copy failed event is sent with the id that
+ * was handed to the client, so that it does not wait for the course forever.
+ * That event is sent right away as the transaction is gone, so it is not kept
+ * in outbox. Asynchronous copy is disabled unless workers are configured.
+ */
+public final class AsyncCourseCopier implements Initializer, Finalizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncCourseCopier.class);
+    private static final String CONFIG_KEY = "courseCopy";
+    private static final String CONFIG_WORKERS = "asyncWorkers";
+    private static final String CONFIG_QUEUE_SIZE = "asyncQueueSize";
+    private static final int DEFAULT_QUEUE_SIZE = 10;
+    private static final long SHUTDOWN_WAIT_SECONDS = 30;
+
+    private volatile boolean initialized = false;
+    private volatile ThreadPoolExecutor executor;
+    private Vertx vertx;
+
+    private AsyncCourseCopier() {
+    }
+
+    public static AsyncCourseCopier getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public void initializeComponent(Vertx vertx, JsonObject config) {
+        if (!initialized) {
+            synchronized (Holder.INSTANCE) {
+                if (!initialized) {
+                    JsonObject copyConfig = config.getJsonObject(CONFIG_KEY);
+                    int workers = copyConfig == null ? 0 : copyConfig.getInteger(CONFIG_WORKERS, 0);
+                    if (workers > 0) {
+                        int queueSize = copyConfig.getInteger(CONFIG_QUEUE_SIZE, DEFAULT_QUEUE_SIZE);
+                        this.vertx = vertx;
+                        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                            new ArrayBlockingQueue<>(queueSize), runnable -> {
+                                Thread thread = new Thread(runnable, "course-copy");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                        LOGGER.info("course copies will be run by {} workers, queue size {}", workers, queueSize);
+                    } else {
+                        LOGGER.info("asynchronous course copy is disabled");
+                    }
+                    initialized = true;
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /*
+     * Returns false if copy could not be queued, either because asynchronous
+     * copy is disabled or because queue is full
+     */
+    public boolean submit(String sourceCourseId, String newCourseId, String userId) {
+        ThreadPoolExecutor current = executor;
+        if (current == null) {
+            return false;
+        }
+        try {
+            current.execute(() -> copy(sourceCourseId, newCourseId, userId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("course copy queue is full, rejecting copy of course {}", sourceCourseId);
+            return false;
+        }
+    }
+
+    @Override
+    public void finalizeComponent() {
+        ThreadPoolExecutor current = executor;
+        if (current != null) {
+            executor = null;
+            current.shutdown();
+            try {
+                if (!current.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                    LOGGER.warn("{} course copies were pending at shutdown", current.shutdownNow().size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void copy(String sourceCourseId, String newCourseId, String userId) {
+        JsonObject event = EventBuilderFactory.getCopyCourseEventBuilder(newCourseId, sourceCourseId).build();
+        boolean outboxed = EventOutboxRelay.getInstance().isEnabled();
+        try {
+            Base.open(DataSourceRegistry.getInstance().getDefaultDataSource());
+            Base.openTransaction();
+            CourseCopier.copy(sourceCourseId, newCourseId, userId);
+            if (outboxed) {
+                EventOutbox.append(event, null);
+            }
+            Base.commitTransaction();
+        } catch (Throwable e) {
+            LOGGER.error("Failed to copy course {} as {}", sourceCourseId, newCourseId, e);
+            vertx.eventBus().send(MessagebusEndpoints.MBEP_EVENT,
+                EventBuilderFactory.getCopyCourseFailedEventBuilder(newCourseId, sourceCourseId).build(),
+                EventBusCodecs.getInstance().apply(new DeliveryOptions()));
+            if (Base.hasConnection()) {
+                Base.rollbackTransaction();
+            }
+            return;
+        } finally {
+            if (Base.hasConnection()) {
+                Base.close();
+            }
+        }
+        if (outboxed) {
+            EventOutboxRelay.getInstance().nudge();
+        } else {
+            vertx.eventBus().send(MessagebusEndpoints.MBEP_EVENT, event,
+                EventBusCodecs.getInstance().apply(new DeliveryOptions()));
+        }
+    }
+
+    private static class Holder {
+        private static final AsyncCourseCopier INSTANCE = new AsyncCourseCopier();
+    }
+}
@@ -0,0 +1,111 @@
+package org.gooru.nucleus.handlers.courses.app.components;
+
+import java.util.concurrent.TimeUnit;
+
+import org.gooru.nucleus.handlers.courses.bootstrap.shutdown.Finalizer;
+import org.gooru.nucleus.handlers.courses.bootstrap.startup.Initializer;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
+import org.javalite.activejdbc.Base;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Periodically recomputes the denormalized lesson count of units from their
+ * lessons and repairs the rows which have drifted. Lessons are only changed by
+ * this module in the transaction which adjusts the count, so drift means a bug
+ * or a change made outside of it, e.g. a data fix, and is logged as a warning.
+ * <p>
+ * Every node runs the timer, but a run goes ahead only on the node which gets
+ * the cluster wide advisory lock for it, others skip that run. Job is disabled
+ * unless interval is configured.
+ */
+public final class ChildCountReconciler implements Initializer, Finalizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChildCountReconciler.class);
+    private static final String CONFIG_KEY = "childCountReconciliation";
+    private static final String CONFIG_INTERVAL = "intervalMinutes";
+    // Keys of CourseLocks are derived from course ids, a fixed key is not
+    // expected to clash with them
+    private static final long RECONCILE_LOCK_KEY = 0x6e75636c636f756eL;
+    private static final String TRY_RECONCILE_LOCK = "SELECT pg_try_advisory_xact_lock(?)";
+
+    private volatile boolean initialized = false;
+    private Vertx vertx;
+    private long timerId = -1;
+
+    private ChildCountReconciler() {
+    }
+
+    public static ChildCountReconciler getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public void initializeComponent(Vertx vertx, JsonObject config) {
+        if (!initialized) {
+            synchronized (Holder.INSTANCE) {
+                if (!initialized) {
+                    JsonObject reconcileConfig = config.getJsonObject(CONFIG_KEY);
+                    long interval = reconcileConfig == null ? 0 : reconcileConfig.getLong(CONFIG_INTERVAL, 0L);
+                    if (interval > 0) {
+                        this.vertx = vertx;
+                        this.timerId = vertx.setPeriodic(TimeUnit.MINUTES.toMillis(interval),
+                            id -> vertx.executeBlocking(future -> {
+                                reconcile();
+                                future.complete();
+                            }, true, result -> {
+                                if (result.failed()) {
+                                    LOGGER.warn("lesson count reconciliation failed", result.cause());
+                                }
+                            }));
+                        LOGGER.info("lesson counts will be reconciled every {} minutes", interval);
+                    } else {
+                        LOGGER.info("lesson count reconciliation is disabled");
+                    }
+                    initialized = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void finalizeComponent() {
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+        }
+    }
+
+    private static void reconcile() {
+        try {
+            Base.open(DataSourceRegistry.getInstance().getDefaultDataSource());
+            Base.openTransaction();
+            if (!Boolean.TRUE.equals(Base.firstCell(TRY_RECONCILE_LOCK, RECONCILE_LOCK_KEY))) {
+                LOGGER.debug("lesson counts are being reconciled by another node, skipping");
+                Base.rollbackTransaction();
+                return;
+            }
+            int repaired = Base.exec(AJEntityUnit.RECONCILE_LESSON_COUNT);
+            Base.commitTransaction();
+            if (repaired > 0) {
+                LOGGER.warn("repaired drifted lesson count of {} units", repaired);
+            }
+        } catch (Throwable e) {
+            LOGGER.error("Failed to reconcile lesson counts", e);
+            if (Base.hasConnection()) {
+                Base.rollbackTransaction();
+            }
+        } finally {
+            if (Base.hasConnection()) {
+                Base.close();
+            }
+        }
+    }
+
+    private static class Holder {
+        private static final ChildCountReconciler INSTANCE = new ChildCountReconciler();
+    }
+}
@@ -0,0 +1,159 @@
+package org.gooru.nucleus.handlers.courses.app.components;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gooru.nucleus.handlers.courses.bootstrap.shutdown.Finalizer;
+import org.gooru.nucleus.handlers.courses.bootstrap.startup.Initializer;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
+import org.javalite.activejdbc.Base;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Merges the updated_at bumps of parent course done by child mutations.
+ * <p>
+ * Handlers call touch() for the course they modified. Touches are collected
+ * per transaction on the executing thread, so multiple touches in the same
+ * transaction result in one bump. When flush interval is configured, touches
+ * of committed transactions are handed over to a write behind buffer which is
+ * applied in one statement once per interval, so that bursts of edits on same
+ * course do not serialize on the course row. With the interval, updated_at of
+ * a course lags its committed edits by up to the interval, and by longer if a
+ * flush fails and is retried, so readers may see a child edit before the bump
+ * of its course. Without the interval, touches are applied in one statement
+ * inside the originating transaction just before it commits.
+ * <p>
+ * TransactionExecutor drives the per transaction part via beforeCommit(),
+ * afterCommit() and discard()
+ */
+public final class CourseTouchCoalescer implements Initializer, Finalizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CourseTouchCoalescer.class);
+    private static final String CONFIG_KEY = "courseTouch";
+    private static final String CONFIG_FLUSH_INTERVAL = "flushIntervalMs";
+
+    private static final ThreadLocal<Set<String>> TRANSACTION_TOUCHES = ThreadLocal.withInitial(HashSet::new);
+    private final Set<String> pendingTouches = ConcurrentHashMap.newKeySet();
+    private volatile boolean initialized = false;
+    private volatile long flushInterval = 0;
+    private Vertx vertx;
+    private long timerId = -1;
+
+    private CourseTouchCoalescer() {
+    }
+
+    public static CourseTouchCoalescer getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public void initializeComponent(Vertx vertx, JsonObject config) {
+        if (!initialized) {
+            synchronized (Holder.INSTANCE) {
+                if (!initialized) {
+                    JsonObject touchConfig = config.getJsonObject(CONFIG_KEY);
+                    long interval = touchConfig == null ? 0 : touchConfig.getLong(CONFIG_FLUSH_INTERVAL, 0L);
+                    if (interval > 0) {
+                        this.vertx = vertx;
+                        this.timerId = vertx.setPeriodic(interval, id -> vertx.executeBlocking(future -> {
+                            flushPending();
+                            future.complete();
+                        }, true, result -> {
+                            if (result.failed()) {
+                                LOGGER.warn("flushing course touches failed", result.cause());
+                            }
+                        }));
+                        LOGGER.info("course touches will be flushed every {} ms", interval);
+                    } else {
+                        LOGGER.info("course touches will be applied with the transaction");
+                    }
+                    flushInterval = interval;
+                    initialized = true;
+                }
+            }
+        }
+    }
+
+    public void touch(String courseId) {
+        if (courseId != null) {
+            TRANSACTION_TOUCHES.get().add(courseId);
+        }
+    }
+
+    public void beforeCommit() {
+        Set<String> touches = TRANSACTION_TOUCHES.get();
+        if (flushInterval <= 0 && !touches.isEmpty()) {
+            applyTouches(touches);
+            touches.clear();
+        }
+    }
+
+    public void afterCommit() {
+        Set<String> touches = TRANSACTION_TOUCHES.get();
+        if (!touches.isEmpty()) {
+            pendingTouches.addAll(touches);
+        }
+        TRANSACTION_TOUCHES.remove();
+    }
+
+    public void discard() {
+        TRANSACTION_TOUCHES.remove();
+    }
+
+    @Override
+    public void finalizeComponent() {
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+        }
+        flushPending();
+    }
+
+    private void flushPending() {
+        if (pendingTouches.isEmpty()) {
+            return;
+        }
+        List<String> courseIds = new ArrayList<>();
+        Iterator<String> it = pendingTouches.iterator();
+        while (it.hasNext()) {
+            courseIds.add(it.next());
+            it.remove();
+        }
+        try {
+            Base.open(DataSourceRegistry.getInstance().getDefaultDataSource());
+            Base.openTransaction();
+            applyTouches(courseIds);
+            Base.commitTransaction();
+            LOGGER.debug("flushed touches for {} courses", courseIds.size());
+        } catch (Throwable e) {
+            // Requeue before anything else can fail, connection may not even
+            // have been opened
+            pendingTouches.addAll(courseIds);
+            LOGGER.error("Failed to flush course touches, will retry in next run", e);
+            if (Base.hasConnection()) {
+                Base.rollbackTransaction();
+            }
+        } finally {
+            if (Base.hasConnection()) {
+                Base.close();
+            }
+        }
+    }
+
+    private static void applyTouches(Collection<String> courseIds) {
+        Base.exec(AJEntityCourse.UPDATE_COURSES_TIMESTAMP, "{" + String.join(",", courseIds) + "}");
+    }
+
+    private static class Holder {
+        private static final CourseTouchCoalescer INSTANCE = new CourseTouchCoalescer();
+    }
+}
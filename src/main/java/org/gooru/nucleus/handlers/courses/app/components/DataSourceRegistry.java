@@ -18,14 +18,19 @@ import java.util.Map;
 public class DataSourceRegistry implements Initializer, Finalizer {
 
     private static final String DEFAULT_DATA_SOURCE = "defaultDataSource";
+    // Optional, pool of connections set up as read only and auto commit which
+    // is used by read handlers
+    private static final String READ_ONLY_DATA_SOURCE = "readOnlyDataSource";
     private static final String DEFAULT_DATA_SOURCE_TYPE = "nucleus.ds.type";
     private static final String DS_HIKARI = "hikari";
     private static final Logger LOGGER = LoggerFactory.getLogger(DataSourceRegistry.class);
     // All the elements in this array are supposed to be present in config file
     // as keys as we are going to initialize them with the value associated with
     // that key
-    private final List<String> datasources = Arrays.asList(DEFAULT_DATA_SOURCE);
+    private final List<String> datasources = Arrays.asList(DEFAULT_DATA_SOURCE, READ_ONLY_DATA_SOURCE);
     private final Map<String, DataSource> registry = new HashMap<>();
+    // Pools as created, registry may hold them wrapped for monitoring
+    private final Map<String, DataSource> pools = new HashMap<>();
     private volatile boolean initialized = false;
 
     private DataSourceRegistry() {
@@ -52,8 +57,13 @@ public class DataSourceRegistry implements Initializer, Finalizer {
                     for (String datasource : datasources) {
                         JsonObject dbConfig = config.getJsonObject(datasource);
                         if (dbConfig != null) {
+                            if (READ_ONLY_DATA_SOURCE.equals(datasource)) {
+                                // Read path relies on these, so do not leave them to config
+                                dbConfig = dbConfig.copy().put("readOnly", true).put("autoCommit", true);
+                            }
                             DataSource ds = initializeDataSource(dbConfig);
-                            registry.put(datasource, ds);
+                            pools.put(datasource, ds);
+                            registry.put(datasource, QueryMonitor.getInstance().monitor(ds));
                         }
                     }
                     initialized = true;
@@ -66,6 +76,10 @@ public class DataSourceRegistry implements Initializer, Finalizer {
         return registry.get(DEFAULT_DATA_SOURCE);
     }
 
+    public DataSource getReadOnlyDataSource() {
+        return registry.get(READ_ONLY_DATA_SOURCE);
+    }
+
     public DataSource getDataSourceByName(String name) {
         if (name != null) {
             return registry.get(name);
@@ -177,7 +191,7 @@ public class DataSourceRegistry implements Initializer, Finalizer {
     @Override
     public void finalizeComponent() {
         for (String datasource : datasources) {
-            DataSource ds = registry.get(datasource);
+            DataSource ds = pools.get(datasource);
             if (ds != null) {
                 if (ds instanceof HikariDataSource) {
                     ((HikariDataSource) ds).close();
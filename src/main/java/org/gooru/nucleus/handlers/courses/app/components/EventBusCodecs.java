@@ -0,0 +1,70 @@
+package org.gooru.nucleus.handlers.courses.app.components;
+
+import org.gooru.nucleus.handlers.courses.app.codecs.CompactJsonCodec;
+import org.gooru.nucleus.handlers.courses.bootstrap.startup.Initializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Registers the codec for replies and events with the event bus and decides
+ * whether the messages are sent with it.
+ * <p>
+ * Messages sent with the codec are not copied on local delivery and are
+ * encoded in binary over the clustered event bus, where the receiving modules
+ * need the codec registered to decode them. Hence it is used only when enabled
+ * in config, else messages go with the default JSON codec.
+ */
+public final class EventBusCodecs implements Initializer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventBusCodecs.class);
+    private static final String CONFIG_KEY = "eventBusCodec";
+    private static final String CONFIG_ENABLED = "enabled";
+
+    private volatile boolean initialized = false;
+    private volatile boolean enabled = false;
+
+    private EventBusCodecs() {
+    }
+
+    public static EventBusCodecs getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public void initializeComponent(Vertx vertx, JsonObject config) {
+        if (!initialized) {
+            synchronized (Holder.INSTANCE) {
+                if (!initialized) {
+                    JsonObject codecConfig = config.getJsonObject(CONFIG_KEY);
+                    if (codecConfig != null && codecConfig.getBoolean(CONFIG_ENABLED, false)) {
+                        vertx.eventBus().registerCodec(new CompactJsonCodec());
+                        enabled = true;
+                        LOGGER.info("replies and events will be sent with codec '{}'", CompactJsonCodec.NAME);
+                    } else {
+                        LOGGER.info("replies and events will be sent with default JSON codec");
+                    }
+                    initialized = true;
+                }
+            }
+        }
+    }
+
+    /*
+     * Sets the codec on given options when enabled, and returns them for
+     * chaining
+     */
+    public DeliveryOptions apply(DeliveryOptions options) {
+        if (enabled) {
+            options.setCodecName(CompactJsonCodec.NAME);
+        }
+        return options;
+    }
+
+    private static class Holder {
+        private static final EventBusCodecs INSTANCE = new EventBusCodecs();
+    }
+}
@@ -0,0 +1,165 @@
+package org.gooru.nucleus.handlers.courses.app.components;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.gooru.nucleus.handlers.courses.bootstrap.shutdown.Finalizer;
+import org.gooru.nucleus.handlers.courses.bootstrap.startup.Initializer;
+import org.gooru.nucleus.handlers.courses.constants.MessagebusEndpoints;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.EventOutbox;
+import org.javalite.activejdbc.Base;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Drains the events written in EventOutbox to event bus in batches. When
+ * enabled, transactions append their events to outbox instead of handing them
+ * back to be sent after the reply, so that an event is not lost if the node
+ * goes down between commit and send, and sending is off the request path.
+ * <p>
+ * Relay runs every interval, and is also nudged after a transaction appending
+ * events commits so that events do not wait for the next run. Only one drain
+ * runs at a time on a node. Each batch is claimed, sent and deleted in one
+ * transaction. Relay is disabled unless configured, and then events are sent
+ * after the reply as before.
+ */
+public final class EventOutboxRelay implements Initializer, Finalizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventOutboxRelay.class);
+    private static final String CONFIG_KEY = "eventOutbox";
+    private static final String CONFIG_ENABLED = "enabled";
+    private static final String CONFIG_INTERVAL = "relayIntervalMs";
+    private static final String CONFIG_BATCH_SIZE = "batchSize";
+    private static final long DEFAULT_INTERVAL = 1000;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    // Bounds one drain, so that a large backlog does not hold the worker
+    private static final int MAX_BATCHES_PER_DRAIN = 50;
+
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder failedDrains = new LongAdder();
+    private volatile boolean initialized = false;
+    private volatile boolean enabled = false;
+    private int batchSize;
+    private Vertx vertx;
+    private long timerId = -1;
+
+    private EventOutboxRelay() {
+    }
+
+    public static EventOutboxRelay getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public void initializeComponent(Vertx vertx, JsonObject config) {
+        if (!initialized) {
+            synchronized (Holder.INSTANCE) {
+                if (!initialized) {
+                    JsonObject outboxConfig = config.getJsonObject(CONFIG_KEY);
+                    if (outboxConfig != null && outboxConfig.getBoolean(CONFIG_ENABLED, false)) {
+                        long interval = outboxConfig.getLong(CONFIG_INTERVAL, DEFAULT_INTERVAL);
+                        this.vertx = vertx;
+                        this.batchSize = outboxConfig.getInteger(CONFIG_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+                        this.timerId = vertx.setPeriodic(interval, id -> nudge());
+                        enabled = true;
+                        LOGGER.info("events will be relayed from outbox every {} ms in batches of {}", interval,
+                            batchSize);
+                    } else {
+                        LOGGER.info("events will be sent after the reply");
+                    }
+                    initialized = true;
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Starts a drain unless one is already running
+    public void nudge() {
+        if (!enabled || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        vertx.executeBlocking(future -> {
+            drain();
+            future.complete();
+        }, false, result -> {
+            draining.set(false);
+            if (result.failed()) {
+                LOGGER.warn("relaying events failed", result.cause());
+            }
+        });
+    }
+
+    public JsonObject metrics() {
+        return new JsonObject().put("enabled", enabled).put("relayed", relayed.sum())
+            .put("failed_drains", failedDrains.sum());
+    }
+
+    @Override
+    public void finalizeComponent() {
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+        }
+        enabled = false;
+    }
+
+    private void drain() {
+        for (int batch = 0; batch < MAX_BATCHES_PER_DRAIN; batch++) {
+            if (relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    // Returns the number of events relayed
+    private int relayBatch() {
+        try {
+            Base.open(DataSourceRegistry.getInstance().getDefaultDataSource());
+            Base.openTransaction();
+            List<Map> rows = Base.findAll(EventOutbox.SELECT_EVENTS_TO_RELAY, batchSize);
+            if (rows.isEmpty()) {
+                Base.commitTransaction();
+                return 0;
+            }
+            List<String> ids = new ArrayList<>(rows.size());
+            DeliveryOptions options = EventBusCodecs.getInstance().apply(new DeliveryOptions());
+            for (Map row : rows) {
+                ids.add(row.get(EventOutbox.ID).toString());
+                vertx.eventBus().send(MessagebusEndpoints.MBEP_EVENT,
+                    new JsonObject(row.get(EventOutbox.EVENT).toString()), options);
+            }
+            Base.exec(EventOutbox.DELETE_RELAYED_EVENTS, "{" + String.join(",", ids) + "}");
+            Base.commitTransaction();
+            relayed.add(rows.size());
+            LOGGER.debug("relayed {} events", rows.size());
+            return rows.size();
+        } catch (Throwable e) {
+            failedDrains.increment();
+            LOGGER.error("Failed to relay events, will retry in next run", e);
+            if (Base.hasConnection()) {
+                Base.rollbackTransaction();
+            }
+            return 0;
+        } finally {
+            if (Base.hasConnection()) {
+                Base.close();
+            }
+        }
+    }
+
+    private static class Holder {
+        private static final EventOutboxRelay INSTANCE = new EventOutboxRelay();
+    }
+}
@@ -0,0 +1,229 @@
+package org.gooru.nucleus.handlers.courses.app.components;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.gooru.nucleus.handlers.courses.bootstrap.shutdown.Finalizer;
+import org.gooru.nucleus.handlers.courses.bootstrap.startup.Initializer;
+import org.gooru.nucleus.handlers.courses.constants.HttpConstants;
+import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.AsyncMap;
+
+/**
+ * Remembers the responses of operations carrying an idempotency key, so that
+ * requests retried by gateway after a timeout are answered with the response
+ * of the first one instead of being run again.
+ * <p>
+ * Key is claimed before the operation runs and the response is stored against
+ * it once done, for the configured TTL. Retry coming in while the first one is
+ * still running is answered with a conflict. Responses which are worth a retry
+ * (server errors, too many requests) are not stored, and claim is released.
+ * Replayed responses do not carry the event, which went out with the original.
+ * <p>
+ * Responses live in memory, and when running clustered, also in a cluster wide
+ * map so that retry landing on another node is answered too. Cluster map is
+ * consulted on a local miss with a short timeout, and is skipped if it does not
+ * answer in time. Claims are local only, so concurrent retries on different
+ * nodes may still both run. Store is disabled unless TTL is configured.
+ */
+public final class IdempotencyStore implements Initializer, Finalizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final String CONFIG_KEY = "idempotency";
+    private static final String CONFIG_TTL = "ttlSeconds";
+    private static final String CONFIG_MAX_ENTRIES = "maxEntries";
+    private static final String CONFIG_CLUSTERED = "clustered";
+    private static final String CONFIG_CLUSTER_TIMEOUT = "clusterTimeoutMs";
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+    private static final long DEFAULT_CLUSTER_TIMEOUT = 100;
+    private static final long MAX_PURGE_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    private static final String CLUSTER_MAP_NAME = "nucleus.course.idempotency";
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean initialized = false;
+    private volatile long ttl = 0;
+    private volatile AsyncMap<String, JsonObject> clusterMap;
+    private int maxEntries;
+    private long clusterTimeout;
+    private Vertx vertx;
+    private long timerId = -1;
+
+    private IdempotencyStore() {
+    }
+
+    public static IdempotencyStore getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public void initializeComponent(Vertx vertx, JsonObject config) {
+        if (!initialized) {
+            synchronized (Holder.INSTANCE) {
+                if (!initialized) {
+                    JsonObject storeConfig = config.getJsonObject(CONFIG_KEY);
+                    long ttlSeconds = storeConfig == null ? 0 : storeConfig.getLong(CONFIG_TTL, 0L);
+                    if (ttlSeconds > 0) {
+                        this.vertx = vertx;
+                        this.maxEntries = storeConfig.getInteger(CONFIG_MAX_ENTRIES, DEFAULT_MAX_ENTRIES);
+                        this.clusterTimeout = storeConfig.getLong(CONFIG_CLUSTER_TIMEOUT, DEFAULT_CLUSTER_TIMEOUT);
+                        this.ttl = TimeUnit.SECONDS.toMillis(ttlSeconds);
+                        this.timerId = vertx.setPeriodic(Math.min(ttl, MAX_PURGE_INTERVAL), id -> purgeExpired());
+                        if (vertx.isClustered() && storeConfig.getBoolean(CONFIG_CLUSTERED, false)) {
+                            vertx.sharedData().<String, JsonObject>getClusterWideMap(CLUSTER_MAP_NAME, result -> {
+                                if (result.succeeded()) {
+                                    clusterMap = result.result();
+                                } else {
+                                    LOGGER.warn("cluster wide idempotency map not available", result.cause());
+                                }
+                            });
+                        }
+                        LOGGER.info("responses of idempotent operations will be kept for {} seconds", ttlSeconds);
+                    } else {
+                        LOGGER.info("idempotency keys will not be honoured");
+                    }
+                    initialized = true;
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return ttl > 0;
+    }
+
+    /*
+     * Claims the key for the caller to process. Returns null when claimed, or
+     * the response to hand back as is when key is already known. When store is
+     * full, nothing is claimed and caller processes as if there were no key.
+     */
+    public MessageResponse claim(String key) {
+        long now = System.currentTimeMillis();
+        Entry claimed = new Entry(null, now + ttl);
+        Entry existing = entries.get(key);
+        if (existing == null || existing.isExpired(now)) {
+            if (existing == null && entries.size() >= maxEntries) {
+                LOGGER.warn("idempotency store is full, not deduplicating request");
+                return null;
+            }
+            boolean won = existing == null ? entries.putIfAbsent(key, claimed) == null
+                : entries.replace(key, existing, claimed);
+            if (won) {
+                return replayFromCluster(key);
+            }
+            existing = entries.get(key);
+            if (existing == null) {
+                return null;
+            }
+        }
+        if (existing.response == null) {
+            LOGGER.warn("request with idempotency key is still in progress");
+            return MessageResponseFactory
+                .createConflictResponse("Request with same idempotency key is already in progress");
+        }
+        LOGGER.debug("replaying stored response for idempotency key");
+        return MessageResponse.replayOf(existing.response.copy());
+    }
+
+    /*
+     * Stores the response against claimed key. Null response, as well as a
+     * response worth a retry, releases the claim.
+     */
+    public void complete(String key, MessageResponse response) {
+        if (response == null || !isStorable(response.reply())) {
+            entries.computeIfPresent(key, (k, entry) -> entry.response == null ? null : entry);
+            return;
+        }
+        JsonObject stored = MessageResponse.storableOf(response);
+        Entry done = new Entry(stored, System.currentTimeMillis() + ttl);
+        if (entries.computeIfPresent(key, (k, entry) -> entry.response == null ? done : entry) == null) {
+            return;
+        }
+        AsyncMap<String, JsonObject> map = clusterMap;
+        if (map != null) {
+            map.put(key, stored, ttl, result -> {
+                if (result.failed()) {
+                    LOGGER.warn("failed to store response in cluster wide idempotency map", result.cause());
+                }
+            });
+        }
+    }
+
+    @Override
+    public void finalizeComponent() {
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+        }
+        entries.clear();
+    }
+
+    /*
+     * Claim is turned into the stored response if another node has one, else
+     * it stays with the caller. Caller is on a worker thread, so it can wait
+     * for the cluster map, whose callback runs on event loop.
+     */
+    private MessageResponse replayFromCluster(String key) {
+        AsyncMap<String, JsonObject> map = clusterMap;
+        if (map == null) {
+            return null;
+        }
+        CompletableFuture<JsonObject> future = new CompletableFuture<>();
+        map.get(key, result -> future.complete(result.succeeded() ? result.result() : null));
+        JsonObject stored;
+        try {
+            stored = future.get(clusterTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.warn("cluster wide idempotency map did not answer in {} ms", clusterTimeout);
+            return null;
+        } catch (Exception e) {
+            LOGGER.warn("failed to look up cluster wide idempotency map", e);
+            return null;
+        }
+        if (stored == null) {
+            return null;
+        }
+        entries.put(key, new Entry(stored, System.currentTimeMillis() + ttl));
+        LOGGER.debug("replaying response stored by another node for idempotency key");
+        return MessageResponse.replayOf(stored.copy());
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+    }
+
+    private static boolean isStorable(JsonObject reply) {
+        Integer status = reply == null ? null : reply.getInteger(MessageConstants.MSG_HTTP_STATUS);
+        return status != null && status < HttpConstants.HttpStatus.ERROR.getCode()
+            && status != HttpConstants.HttpStatus.TOO_MANY_REQUESTS.getCode()
+            && status != HttpConstants.HttpStatus.CONFLICT.getCode();
+    }
+
+    // Response is null while the claiming request is being processed
+    private static final class Entry {
+        private final JsonObject response;
+        private final long expiresAt;
+
+        Entry(JsonObject response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private static class Holder {
+        private static final IdempotencyStore INSTANCE = new IdempotencyStore();
+    }
+}
@@ -0,0 +1,294 @@
+package org.gooru.nucleus.handlers.courses.app.components;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gooru.nucleus.handlers.courses.bootstrap.shutdown.Finalizer;
+import org.gooru.nucleus.handlers.courses.bootstrap.startup.Initializer;
+import org.gooru.nucleus.handlers.courses.processors.OperationDescriptor;
+import org.gooru.nucleus.handlers.courses.processors.OperationDescriptor.OperationClass;
+import org.gooru.nucleus.handlers.courses.processors.OperationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Schedules the processing of messages on a fixed set of workers, with a lane
+ * per operation class, so that heavy bulk operations and writes do not hold up
+ * interactive reads queued behind them.
+ * <p>
+ * Each lane has its own bounded queue, a weight and a concurrency limit. When a
+ * worker frees up, next task is taken from the lanes which have work and are
+ * below their limit, in smooth weighted round robin order. Limits of write and
+ * bulk lanes together have to leave at least one worker, so that reads can
+ * always make progress. Task which does not fit in its lane queue is rejected
+ * and caller is expected to answer with too many requests. Task which can not
+ * be run because lanes were shut down, whether it was still queued or handed
+ * to a worker which refused it, is given to its rejection handler, so that
+ * caller can still answer and the worker it was counted on is freed.
+ * <p>
+ * When lanes are not configured, messages are processed on the vert.x worker
+ * pool as before, or on virtual threads when that mode is on.
+ */
+public final class OperationLanes implements Initializer, Finalizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationLanes.class);
+    private static final String CONFIG_KEY = "lanes";
+    private static final String CONFIG_WORKERS = "workers";
+    private static final String CONFIG_WEIGHT = "weight";
+    private static final String CONFIG_MAX_CONCURRENCY = "maxConcurrency";
+    private static final String CONFIG_QUEUE_SIZE = "queueSize";
+    private static final int DEFAULT_QUEUE_SIZE = 500;
+    private static final long SHUTDOWN_WAIT_SECONDS = 10;
+
+    private final Map<OperationClass, Lane> lanes = new EnumMap<>(OperationClass.class);
+    private volatile boolean initialized = false;
+    private volatile ExecutorService executor;
+    private int workers;
+    private int busy = 0;
+
+    private OperationLanes() {
+    }
+
+    public static OperationLanes getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public void initializeComponent(Vertx vertx, JsonObject config) {
+        if (!initialized) {
+            synchronized (Holder.INSTANCE) {
+                if (!initialized) {
+                    JsonObject lanesConfig = config.getJsonObject(CONFIG_KEY);
+                    int workerCount = lanesConfig == null ? 0 : lanesConfig.getInteger(CONFIG_WORKERS, 0);
+                    if (workerCount > 0) {
+                        configureLanes(lanesConfig, workerCount);
+                        this.workers = workerCount;
+                        this.executor = createExecutor(workerCount);
+                        LOGGER.info("messages will be processed by {} workers in lanes {}", workerCount, metrics());
+                    } else {
+                        LOGGER.info("messages will be processed on vert.x worker pool");
+                    }
+                    initialized = true;
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /*
+     * Queues the processing of message for given operation in its lane.
+     * Unknown operations go in write lane, they are rejected right away by
+     * processor anyway. Returns false if lane queue is full. If lanes are shut
+     * down before the task runs, onRejected is called instead.
+     */
+    public boolean submit(String operation, Runnable task, Runnable onRejected) {
+        OperationDescriptor descriptor = OperationRegistry.getInstance().lookup(operation);
+        Lane lane = lanes.get(descriptor != null ? descriptor.operationClass() : OperationClass.WRITE);
+        synchronized (this) {
+            if (executor == null) {
+                lane.rejected++;
+                LOGGER.warn("lanes are shut down, rejecting '{}'", operation);
+                onRejected.run();
+                return true;
+            }
+            if (lane.queue.size() >= lane.queueSize) {
+                lane.rejected++;
+                LOGGER.warn("{} lane is full, rejecting '{}'", lane.name, operation);
+                return false;
+            }
+            lane.queue.add(new LaneTask(task, onRejected));
+            dispatch();
+        }
+        return true;
+    }
+
+    public synchronized JsonObject metrics() {
+        JsonObject result = new JsonObject().put("workers", workers).put("busy", busy);
+        lanes.values().forEach(lane -> result.put(lane.name,
+            new JsonObject().put("weight", lane.weight).put("max_concurrency", lane.maxConcurrency)
+                .put("queue_size", lane.queueSize).put("running", lane.running).put("queued", lane.queue.size())
+                .put("executed", lane.executed).put("rejected", lane.rejected)));
+        return result;
+    }
+
+    @Override
+    public void finalizeComponent() {
+        ExecutorService current;
+        synchronized (this) {
+            current = executor;
+            executor = null;
+            rejectQueued();
+        }
+        if (current != null) {
+            current.shutdown();
+            try {
+                if (!current.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                    current.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /*
+     * Workers are virtual threads when that mode is on, lanes still bound how
+     * many of them run at a time
+     */
+    private static ExecutorService createExecutor(int workerCount) {
+        VirtualThreads virtualThreads = VirtualThreads.getInstance();
+        if (virtualThreads.isEnabled()) {
+            return virtualThreads.newExecutor();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "course-lane-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void configureLanes(JsonObject lanesConfig, int workerCount) {
+        int writeConcurrency = 0;
+        for (OperationClass operationClass : OperationClass.values()) {
+            Lane lane = new Lane(operationClass, lanesConfig.getJsonObject(Lane.nameOf(operationClass)), workerCount);
+            lanes.put(operationClass, lane);
+            if (operationClass != OperationClass.READ) {
+                writeConcurrency += lane.maxConcurrency;
+            }
+        }
+        if (writeConcurrency >= workerCount) {
+            throw new IllegalStateException("Write and bulk lanes together may use at most " + (workerCount - 1)
+                + " of " + workerCount + " workers, so that reads can make progress");
+        }
+    }
+
+    // Called with lock held
+    private void dispatch() {
+        ExecutorService current = executor;
+        while (current != null && busy < workers) {
+            Lane lane = nextLane();
+            if (lane == null) {
+                return;
+            }
+            LaneTask task = lane.queue.poll();
+            lane.running++;
+            busy++;
+            try {
+                current.execute(() -> run(lane, task.task));
+            } catch (RejectedExecutionException e) {
+                lane.running--;
+                busy--;
+                lane.rejected++;
+                LOGGER.warn("{} lane worker refused task, lanes are shutting down", lane.name);
+                task.onRejected.run();
+                return;
+            }
+        }
+    }
+
+    // Called with lock held
+    private void rejectQueued() {
+        for (Lane lane : lanes.values()) {
+            for (LaneTask task = lane.queue.poll(); task != null; task = lane.queue.poll()) {
+                lane.rejected++;
+                task.onRejected.run();
+            }
+        }
+    }
+
+    /*
+     * Smooth weighted round robin over lanes having work and room to run it:
+     * every eligible lane earns its weight, the richest one is picked and pays
+     * back the total, which interleaves lanes in proportion to their weights.
+     */
+    private Lane nextLane() {
+        Lane selected = null;
+        int total = 0;
+        for (Lane lane : lanes.values()) {
+            if (lane.queue.isEmpty() || lane.running >= lane.maxConcurrency) {
+                continue;
+            }
+            lane.currentWeight += lane.weight;
+            total += lane.weight;
+            if (selected == null || lane.currentWeight > selected.currentWeight) {
+                selected = lane;
+            }
+        }
+        if (selected != null) {
+            selected.currentWeight -= total;
+        }
+        return selected;
+    }
+
+    private void run(Lane lane, Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            LOGGER.error("Exception while processing message in {} lane", lane.name, t);
+        } finally {
+            synchronized (this) {
+                lane.running--;
+                lane.executed++;
+                busy--;
+                dispatch();
+            }
+        }
+    }
+
+    // State is guarded by the lock of OperationLanes
+    private static final class Lane {
+        private final String name;
+        private final int weight;
+        private final int maxConcurrency;
+        private final int queueSize;
+        private final Queue<LaneTask> queue = new ArrayDeque<>();
+        private int currentWeight = 0;
+        private int running = 0;
+        private long executed = 0;
+        private long rejected = 0;
+
+        Lane(OperationClass operationClass, JsonObject laneConfig, int workerCount) {
+            JsonObject config = laneConfig != null ? laneConfig : new JsonObject();
+            this.name = nameOf(operationClass);
+            this.weight = config.getInteger(CONFIG_WEIGHT, 1);
+            this.maxConcurrency = Math.min(config.getInteger(CONFIG_MAX_CONCURRENCY, workerCount), workerCount);
+            this.queueSize = config.getInteger(CONFIG_QUEUE_SIZE, DEFAULT_QUEUE_SIZE);
+            if (weight <= 0 || maxConcurrency <= 0 || queueSize <= 0) {
+                throw new IllegalStateException(
+                    "Weight, concurrency and queue size of " + name + " lane must be positive");
+            }
+        }
+
+        static String nameOf(OperationClass operationClass) {
+            return operationClass.name().toLowerCase();
+        }
+    }
+
+    private static final class LaneTask {
+        private final Runnable task;
+        private final Runnable onRejected;
+
+        LaneTask(Runnable task, Runnable onRejected) {
+            this.task = task;
+            this.onRejected = onRejected;
+        }
+    }
+
+    private static class Holder {
+        private static final OperationLanes INSTANCE = new OperationLanes();
+    }
+}
@@ -0,0 +1,287 @@
+package org.gooru.nucleus.handlers.courses.app.components;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.gooru.nucleus.handlers.courses.bootstrap.shutdown.Finalizer;
+import org.gooru.nucleus.handlers.courses.bootstrap.startup.Initializer;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.monitoring.QueryInterceptor;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.monitoring.QueryListener;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.monitoring.StatementNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Keeps timings of every statement by the name of SQL constant and captures
+ * the slow ones.
+ * <p>
+ * DataSourceRegistry hands its pools over to monitor() which wraps them with
+ * QueryInterceptor when monitoring is enabled. A statement running longer than
+ * threshold is logged, with its bound parameters at debug level only. When
+ * explain is turned on, which it is not by default, its plan is then captured
+ * with EXPLAIN ANALYZE on a separate connection off the
+ * request thread, and the result is kept in a bounded buffer of recent slow
+ * queries. Plans are captured only for plain selects defined as entity
+ * constants, as ANALYZE executes the statement, so that locking statements
+ * like advisory locks are never run again. Plan of a statement is captured at
+ * most once per explain interval to avoid piling up on a query which is slow
+ * for everyone, and at most explainMaxConcurrent plans are captured at a time,
+ * each bounded by explainTimeoutMs. ConcurrencySizing counts those connections
+ * in the default pool.
+ * <p>
+ * Timings and slow queries can be read with report(), which is served on the
+ * admin end point. Bound parameters carry user data, so only their types are
+ * reported.
+ */
+public final class QueryMonitor implements Initializer, Finalizer, QueryListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryMonitor.class);
+    private static final String CONFIG_KEY = "queryMonitor";
+    private static final String CONFIG_ENABLED = "enabled";
+    private static final String CONFIG_SLOW_THRESHOLD = "slowThresholdMs";
+    private static final String CONFIG_EXPLAIN = "explain";
+    private static final String CONFIG_EXPLAIN_INTERVAL = "explainIntervalMs";
+    private static final String CONFIG_BUFFER_SIZE = "bufferSize";
+    public static final String CONFIG_EXPLAIN_MAX_CONCURRENT = "explainMaxConcurrent";
+    private static final String CONFIG_EXPLAIN_TIMEOUT = "explainTimeoutMs";
+    private static final String EXPLAIN_ANALYZE = "EXPLAIN (ANALYZE, BUFFERS, FORMAT TEXT) ";
+    private static final String SET_EXPLAIN_TIMEOUT = "SET LOCAL statement_timeout = ";
+    private static final int MAX_PARAM_LENGTH = 200;
+
+    private final Map<String, QueryStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+    private final Deque<JsonObject> slowQueries = new ArrayDeque<>();
+    private volatile boolean initialized = false;
+    private boolean enabled = false;
+    private boolean explain = false;
+    private long slowThresholdNanos;
+    private long explainIntervalMs;
+    private int bufferSize;
+    private long explainTimeoutMs;
+    private Semaphore explainPermits;
+    private Vertx vertx;
+    private volatile DataSource explainDataSource;
+
+    private QueryMonitor() {
+    }
+
+    public static QueryMonitor getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public void initializeComponent(Vertx vertx, JsonObject config) {
+        if (!initialized) {
+            synchronized (Holder.INSTANCE) {
+                if (!initialized) {
+                    JsonObject monitorConfig = config.getJsonObject(CONFIG_KEY);
+                    if (monitorConfig != null && monitorConfig.getBoolean(CONFIG_ENABLED, false)) {
+                        this.vertx = vertx;
+                        this.enabled = true;
+                        this.explain = monitorConfig.getBoolean(CONFIG_EXPLAIN, false);
+                        this.slowThresholdNanos =
+                            TimeUnit.MILLISECONDS.toNanos(monitorConfig.getLong(CONFIG_SLOW_THRESHOLD, 250L));
+                        this.explainIntervalMs = monitorConfig.getLong(CONFIG_EXPLAIN_INTERVAL, 60000L);
+                        this.bufferSize = monitorConfig.getInteger(CONFIG_BUFFER_SIZE, 50);
+                        this.explainTimeoutMs = monitorConfig.getLong(CONFIG_EXPLAIN_TIMEOUT, 5000L);
+                        this.explainPermits =
+                            new Semaphore(Math.max(1, monitorConfig.getInteger(CONFIG_EXPLAIN_MAX_CONCURRENT, 1)));
+                        LOGGER.info("query monitoring enabled with slow threshold of {} ms",
+                            TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos));
+                    } else {
+                        LOGGER.info("query monitoring is disabled");
+                    }
+                    initialized = true;
+                }
+            }
+        }
+    }
+
+    /*
+     * Needs to be initialized before this is called, hence it precedes the
+     * DataSourceRegistry in initializers
+     */
+    public DataSource monitor(DataSource dataSource) {
+        if (!enabled) {
+            return dataSource;
+        }
+        // Plans are captured on the default pool, without interception
+        if (explainDataSource == null) {
+            explainDataSource = dataSource;
+        }
+        return QueryInterceptor.wrap(dataSource, this);
+    }
+
+    @Override
+    public void onStatement(String sql, Object[] params, long elapsedNanos) {
+        String name = StatementNames.nameOf(sql);
+        stats.computeIfAbsent(name, key -> new QueryStats()).record(elapsedNanos);
+        if (elapsedNanos < slowThresholdNanos) {
+            return;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        LOGGER.warn("slow query '{}' took {} ms", name, elapsedMs);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("slow query '{}' params {}", name, toJson(params));
+        }
+
+        JsonObject slowQuery = new JsonObject().put("name", name).put("elapsed_ms", elapsedMs)
+            .put("param_types", typesOf(params)).put("captured_at", Instant.now().toString());
+        if (explain && isExplainable(sql) && explainDue(name) && explainPermits.tryAcquire()) {
+            vertx.executeBlocking(future -> {
+                try {
+                    slowQuery.put("plan", explain(sql, params));
+                    future.complete();
+                } catch (SQLException e) {
+                    future.fail(e);
+                } finally {
+                    explainPermits.release();
+                }
+            }, false, result -> {
+                if (result.failed()) {
+                    LOGGER.warn("capturing plan of '{}' failed", name, result.cause());
+                }
+                remember(slowQuery);
+            });
+        } else {
+            remember(slowQuery);
+        }
+    }
+
+    public JsonObject report() {
+        JsonObject timings = new JsonObject();
+        stats.forEach((name, stat) -> timings.put(name, stat.toJson()));
+        JsonArray recent;
+        synchronized (slowQueries) {
+            recent = new JsonArray(Arrays.asList(slowQueries.toArray()));
+        }
+        return new JsonObject().put("enabled", enabled).put("timings", timings).put("slow_queries", recent);
+    }
+
+    @Override
+    public void finalizeComponent() {
+        explainDataSource = null;
+    }
+
+    private boolean explainDue(String name) {
+        long now = System.currentTimeMillis();
+        Long last = lastExplained.get(name);
+        if (last != null && now - last < explainIntervalMs) {
+            return false;
+        }
+        return last == null ? lastExplained.putIfAbsent(name, now) == null : lastExplained.replace(name, last, now);
+    }
+
+    private void remember(JsonObject slowQuery) {
+        synchronized (slowQueries) {
+            if (slowQueries.size() >= bufferSize) {
+                slowQueries.removeFirst();
+            }
+            slowQueries.addLast(slowQuery);
+        }
+    }
+
+    private String explain(String sql, Object[] params) throws SQLException {
+        DataSource dataSource = explainDataSource;
+        if (dataSource == null) {
+            return null;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement timeout = connection.createStatement()) {
+                timeout.execute(SET_EXPLAIN_TIMEOUT + explainTimeoutMs);
+            }
+            try (PreparedStatement ps = connection.prepareStatement(EXPLAIN_ANALYZE + sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    ps.setObject(i + 1, params[i]);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    /*
+     * Only selects defined by entities are re-run, statements defined elsewhere
+     * may take locks, e.g. advisory locks of CourseLocks
+     */
+    private static boolean isExplainable(String sql) {
+        if (!StatementNames.isNamed(sql)) {
+            return false;
+        }
+        String upper = sql.trim().toUpperCase();
+        return upper.startsWith("SELECT ") && !upper.contains(" FOR UPDATE") && !upper.contains(" FOR SHARE")
+            && !upper.contains("PG_ADVISORY");
+    }
+
+    private static JsonArray typesOf(Object[] params) {
+        JsonArray result = new JsonArray();
+        for (Object param : params) {
+            result.add(param == null ? "null" : param.getClass().getSimpleName());
+        }
+        return result;
+    }
+
+    private static JsonArray toJson(Object[] params) {
+        JsonArray result = new JsonArray();
+        for (Object param : params) {
+            if (param == null) {
+                result.addNull();
+            } else {
+                String value = param.toString();
+                result.add(value.length() > MAX_PARAM_LENGTH ? value.substring(0, MAX_PARAM_LENGTH) + "..." : value);
+            }
+        }
+        return result;
+    }
+
+    private static final class QueryStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        void record(long elapsedNanos) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+        }
+
+        JsonObject toJson() {
+            long calls = count.sum();
+            long total = totalNanos.sum();
+            return new JsonObject().put("count", calls).put("total_ms", TimeUnit.NANOSECONDS.toMillis(total))
+                .put("avg_ms", calls == 0 ? 0.0 : total / (calls * 1_000_000.0))
+                .put("max_ms", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+        }
+    }
+
+    private static class Holder {
+        private static final QueryMonitor INSTANCE = new QueryMonitor();
+    }
+}
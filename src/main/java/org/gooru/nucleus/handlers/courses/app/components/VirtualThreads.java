@@ -0,0 +1,165 @@
+package org.gooru.nucleus.handlers.courses.app.components;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.gooru.nucleus.handlers.courses.bootstrap.shutdown.Finalizer;
+import org.gooru.nucleus.handlers.courses.bootstrap.startup.Initializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Optional mode where messages are processed on virtual threads instead of
+ * platform workers, so that handlers waiting on JDBC do not hold an OS thread
+ * each. Module is built for Java 8, so virtual threads are looked up
+ * reflectively and mode falls back to platform threads on older runtimes.
+ * <p>
+ * Every message is processed start to end on one virtual thread, so the
+ * connection ActiveJDBC keeps in a thread local and the per transaction state
+ * of CourseTouchCoalescer stay with the transaction, as they do on a worker.
+ * Our own locks are not held across I/O, but the JDBC driver synchronizes on
+ * its connection while talking to database, which pins the carrier thread
+ * before Java 24. Concurrency of JDBC is bounded by the pool size, so a pool
+ * larger than the carrier parallelism is reported at startup.
+ * <p>
+ * When lanes are used, they keep scheduling and bounding the work and only
+ * run it on virtual threads. Mode is disabled unless configured.
+ */
+public final class VirtualThreads implements Initializer, Finalizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreads.class);
+    private static final String CONFIG_KEY = "virtualThreads";
+    private static final String CONFIG_ENABLED = "enabled";
+    private static final String DEFAULT_DATA_SOURCE = "defaultDataSource";
+    private static final String MAXIMUM_POOL_SIZE = "maximumPoolSize";
+    private static final String CARRIER_PARALLELISM = "jdk.virtualThreadScheduler.parallelism";
+    private static final int UNPINNED_SYNCHRONIZED_VERSION = 24;
+    private static final long SHUTDOWN_WAIT_SECONDS = 10;
+
+    private volatile boolean initialized = false;
+    private volatile ThreadFactory threadFactory;
+    private volatile ExecutorService executor;
+
+    private VirtualThreads() {
+    }
+
+    public static VirtualThreads getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public void initializeComponent(Vertx vertx, JsonObject config) {
+        if (!initialized) {
+            synchronized (Holder.INSTANCE) {
+                if (!initialized) {
+                    JsonObject threadsConfig = config.getJsonObject(CONFIG_KEY);
+                    if (threadsConfig != null && threadsConfig.getBoolean(CONFIG_ENABLED, false)) {
+                        ThreadFactory factory = virtualThreadFactory("course-virtual-");
+                        if (factory != null) {
+                            this.threadFactory = factory;
+                            this.executor = newThreadPerTaskExecutor(factory);
+                            checkPinning(config);
+                            LOGGER.info("messages will be processed on virtual threads");
+                        } else {
+                            LOGGER.warn("virtual threads are not available on Java {}, using platform threads",
+                                System.getProperty("java.specification.version"));
+                        }
+                    } else {
+                        LOGGER.info("messages will be processed on platform threads");
+                    }
+                    initialized = true;
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    // Starts a virtual thread per task, null when mode is not enabled
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    // New executor starting a virtual thread per task, for components which
+    // manage its life cycle themselves
+    public ExecutorService newExecutor() {
+        if (threadFactory == null) {
+            throw new IllegalStateException("Virtual threads are not enabled");
+        }
+        return newThreadPerTaskExecutor(threadFactory);
+    }
+
+    @Override
+    public void finalizeComponent() {
+        ExecutorService current = executor;
+        if (current != null) {
+            executor = null;
+            current.shutdown();
+            try {
+                if (!current.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                    current.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void checkPinning(JsonObject config) {
+        if (javaVersion() >= UNPINNED_SYNCHRONIZED_VERSION) {
+            return;
+        }
+        int carriers = Integer.getInteger(CARRIER_PARALLELISM, Runtime.getRuntime().availableProcessors());
+        JsonObject dbConfig = config.getJsonObject(DEFAULT_DATA_SOURCE);
+        Integer poolSize = dbConfig == null ? null : dbConfig.getInteger(MAXIMUM_POOL_SIZE);
+        if (poolSize != null && poolSize > carriers) {
+            LOGGER.warn("JDBC calls pin carrier threads before Java {}, {} connections can not be used by {} carriers, "
+                + "consider raising {}", UNPINNED_SYNCHRONIZED_VERSION, poolSize, carriers, CARRIER_PARALLELISM);
+        }
+    }
+
+    private static int javaVersion() {
+        String version = System.getProperty("java.specification.version", "1.8");
+        try {
+            return version.startsWith("1.") ? Integer.parseInt(version.substring(2)) : Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /*
+     * Thread.ofVirtual().name(prefix, 0).factory(), null when runtime does not
+     * have virtual threads
+     */
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.debug("virtual threads not available", e);
+            return null;
+        }
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(ThreadFactory factory) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are available but executor for them is not", e);
+        }
+    }
+
+    private static class Holder {
+        private static final VirtualThreads INSTANCE = new VirtualThreads();
+    }
+}
@@ -1,19 +1,36 @@
 package org.gooru.nucleus.handlers.courses.bootstrap;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.gooru.nucleus.handlers.courses.app.components.EventBusCodecs;
+import org.gooru.nucleus.handlers.courses.app.components.EventOutboxRelay;
+import org.gooru.nucleus.handlers.courses.app.components.OperationLanes;
+import org.gooru.nucleus.handlers.courses.app.components.QueryMonitor;
+import org.gooru.nucleus.handlers.courses.app.components.VirtualThreads;
 import org.gooru.nucleus.handlers.courses.bootstrap.shutdown.Finalizer;
 import org.gooru.nucleus.handlers.courses.bootstrap.shutdown.Finalizers;
+import org.gooru.nucleus.handlers.courses.bootstrap.startup.ConcurrencySizing;
 import org.gooru.nucleus.handlers.courses.bootstrap.startup.Initializer;
 import org.gooru.nucleus.handlers.courses.bootstrap.startup.Initializers;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.constants.MessagebusEndpoints;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorBuilder;
+import org.gooru.nucleus.handlers.courses.processors.ReadCoalescer;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.CourseLocks;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.transactions.TransactionExecutor;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.gooru.nucleus.handlers.courses.processors.utils.UuidUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.JsonObject;
 
 /**
@@ -22,6 +39,9 @@ import io.vertx.core.json.JsonObject;
 public class CourseVerticle extends AbstractVerticle {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CourseVerticle.class);
+    private static final String CONFIG_ADMIN_ENDPOINT = "adminEndpoint";
+    private static final String CONFIG_ENABLED = "enabled";
+    private ConcurrencySizing sizing;
 
     @Override
     public void start(Future<Void> voidFuture) throws Exception {
@@ -34,27 +54,35 @@ public class CourseVerticle extends AbstractVerticle {
                 EventBus eb = vertx.eventBus();
                 eb.consumer(MessagebusEndpoints.MBEP_COURSE, message -> {
                     LOGGER.debug("Received message: " + message.body());
-                    vertx.executeBlocking(future -> {
-                        MessageResponse result = new ProcessorBuilder(message).build().process();
-                        LOGGER.info("got response :" + result.reply());
-                        future.complete(result);
-                    }, res -> {
-                        MessageResponse result = (MessageResponse) res.result();
-                        message.reply(result.reply(), result.deliveryOptions());
-                        JsonObject eventData = result.event();
-                        if (eventData != null) {
-                            String sessionToken =
-                                ((JsonObject) message.body()).getString(MessageConstants.MSG_HEADER_TOKEN);
-                            if (sessionToken != null && !sessionToken.isEmpty()) {
-                                eventData.put(MessageConstants.MSG_HEADER_TOKEN, sessionToken);
-                            } else {
-                                LOGGER.warn("Invalid session token received");
-                            }
-                            eb.send(MessagebusEndpoints.MBEP_EVENT, eventData);
+                    OperationLanes lanes = OperationLanes.getInstance();
+                    ExecutorService virtualThreads = VirtualThreads.getInstance().executor();
+                    if (lanes.isEnabled()) {
+                        Context context = vertx.getOrCreateContext();
+                        boolean queued = lanes.submit(message.headers().get(MessageConstants.MSG_HEADER_OP), () -> {
+                            MessageResponse result = process(message);
+                            context.runOnContext(v -> sendResponse(eb, message, result));
+                        }, () -> context.runOnContext(v -> sendResponse(eb, message, rejectedResponse())));
+                        if (!queued) {
+                            sendResponse(eb, message,
+                                MessageResponseFactory.createTooManyRequestsResponse("Too many requests, retry later"));
+                        }
+                    } else if (virtualThreads != null) {
+                        Context context = vertx.getOrCreateContext();
+                        try {
+                            virtualThreads.execute(() -> {
+                                MessageResponse result = process(message);
+                                context.runOnContext(v -> sendResponse(eb, message, result));
+                            });
+                        } catch (RejectedExecutionException e) {
+                            sendResponse(eb, message, rejectedResponse());
                         }
-                    });
+                    } else {
+                        vertx.executeBlocking(future -> future.complete(process(message)),
+                            res -> sendResponse(eb, message, (MessageResponse) res.result()));
+                    }
                 }).completionHandler(result -> {
                     if (result.succeeded()) {
+                        registerAdminEndpoint(eb);
                         LOGGER.info("Course end point ready to listen");
                         voidFuture.complete();
                     } else {
@@ -70,6 +98,79 @@ public class CourseVerticle extends AbstractVerticle {
 
     }
 
+    /*
+     * The admin end point is off unless adminEndpoint.enabled is set in config. It is not exposed via gateway, so
+     * the same user, preferences and session token checks the course end point relies on are applied here before
+     * any metrics are handed out.
+     */
+    private void registerAdminEndpoint(EventBus eb) {
+        JsonObject adminConfig = config().getJsonObject(CONFIG_ADMIN_ENDPOINT);
+        if (adminConfig == null || !adminConfig.getBoolean(CONFIG_ENABLED, false)) {
+            LOGGER.info("Admin end point is disabled");
+            return;
+        }
+        eb.consumer(MessagebusEndpoints.MBEP_COURSE_ADMIN, message -> {
+            if (!isAuthorizedAdminMessage(message)) {
+                sendResponse(eb, message, MessageResponseFactory.createForbiddenResponse());
+                return;
+            }
+            sendResponse(eb, message, MessageResponseFactory.createGetResponse(QueryMonitor.getInstance().report()
+                .put("course_locks", CourseLocks.metrics())
+                .put("transactions", TransactionExecutor.retryMetrics())
+                .put("coalesced_reads", ReadCoalescer.metrics())
+                .put("lanes", OperationLanes.getInstance().metrics())
+                .put("sizing", sizing.report())
+                .put("event_outbox", EventOutboxRelay.getInstance().metrics())));
+        });
+        LOGGER.info("Admin end point ready to listen");
+    }
+
+    private static boolean isAuthorizedAdminMessage(Message<Object> message) {
+        if (!(message.body() instanceof JsonObject)) {
+            LOGGER.error("Invalid admin message received, body of message is not JsonObject");
+            return false;
+        }
+        JsonObject body = (JsonObject) message.body();
+        String userId = body.getString(MessageConstants.MSG_USER_ID);
+        if (userId == null || !UuidUtils.isValid(userId)) {
+            LOGGER.error("Invalid user id passed to admin end point. Not authorized.");
+            return false;
+        }
+        JsonObject prefs = body.getJsonObject(MessageConstants.MSG_KEY_PREFS);
+        String sessionToken = body.getString(MessageConstants.MSG_HEADER_TOKEN);
+        if (prefs == null || prefs.isEmpty() || sessionToken == null || sessionToken.isEmpty()) {
+            LOGGER.error("Invalid preferences or session token passed to admin end point. Not authorized.");
+            return false;
+        }
+        return true;
+    }
+
+    private static MessageResponse rejectedResponse() {
+        LOGGER.warn("Message received while shutting down, rejecting it");
+        return MessageResponseFactory.createInternalErrorResponse("Service is shutting down, retry later");
+    }
+
+    private static MessageResponse process(Message<Object> message) {
+        MessageResponse result = ProcessorBuilder.build().process(message);
+        LOGGER.info("got response :" + result.reply());
+        return result;
+    }
+
+    private static void sendResponse(EventBus eb, Message<Object> message, MessageResponse result) {
+        EventBusCodecs codecs = EventBusCodecs.getInstance();
+        message.reply(result.reply(), codecs.apply(result.deliveryOptions()));
+        JsonObject eventData = result.event();
+        if (eventData != null) {
+            String sessionToken = ((JsonObject) message.body()).getString(MessageConstants.MSG_HEADER_TOKEN);
+            if (sessionToken != null && !sessionToken.isEmpty()) {
+                eventData.put(MessageConstants.MSG_HEADER_TOKEN, sessionToken);
+            } else {
+                LOGGER.warn("Invalid session token received");
+            }
+            eb.send(MessagebusEndpoints.MBEP_EVENT, eventData, codecs.apply(new DeliveryOptions()));
+        }
+    }
+
     @Override
     public void stop() throws Exception {
         shutDownApplication();
@@ -79,8 +180,10 @@ public class CourseVerticle extends AbstractVerticle {
     private void startApplication() {
         Initializers initializers = new Initializers();
         try {
+            sizing = ConcurrencySizing.of(config());
+            sizing.checkDeployment(vertx, context.getInstanceCount());
             for (Initializer initializer : initializers) {
-                initializer.initializeComponent(vertx, config());
+                initializer.initializeComponent(vertx, sizing.sizedConfig());
             }
         } catch (IllegalStateException ie) {
             LOGGER.error("Error initializing application", ie);
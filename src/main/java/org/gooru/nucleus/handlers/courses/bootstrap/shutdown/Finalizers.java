@@ -1,6 +1,14 @@
 package org.gooru.nucleus.handlers.courses.bootstrap.shutdown;
 
+import org.gooru.nucleus.handlers.courses.app.components.AsyncCourseCopier;
+import org.gooru.nucleus.handlers.courses.app.components.ChildCountReconciler;
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
 import org.gooru.nucleus.handlers.courses.app.components.DataSourceRegistry;
+import org.gooru.nucleus.handlers.courses.app.components.EventOutboxRelay;
+import org.gooru.nucleus.handlers.courses.app.components.IdempotencyStore;
+import org.gooru.nucleus.handlers.courses.app.components.OperationLanes;
+import org.gooru.nucleus.handlers.courses.app.components.QueryMonitor;
+import org.gooru.nucleus.handlers.courses.app.components.VirtualThreads;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -12,6 +20,14 @@ public class Finalizers implements Iterable<Finalizer> {
 
     public Finalizers() {
         List<Finalizer> finalizers = new ArrayList<>();
+        finalizers.add(OperationLanes.getInstance());
+        finalizers.add(VirtualThreads.getInstance());
+        finalizers.add(AsyncCourseCopier.getInstance());
+        finalizers.add(EventOutboxRelay.getInstance());
+        finalizers.add(IdempotencyStore.getInstance());
+        finalizers.add(ChildCountReconciler.getInstance());
+        finalizers.add(CourseTouchCoalescer.getInstance());
+        finalizers.add(QueryMonitor.getInstance());
         finalizers.add(DataSourceRegistry.getInstance());
         internalIterator = finalizers.iterator();
     }
@@ -0,0 +1,221 @@
+package org.gooru.nucleus.handlers.courses.bootstrap.startup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.gooru.nucleus.handlers.courses.app.components.QueryMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Derives the worker count, lane limits and connection pool sizes from one
+ * concurrency target, so that they do not get tuned independently and end up
+ * mismatched, e.g. more workers than connections for them.
+ * <p>
+ * Target defaults to two in flight operations per core. Every worker may end
+ * up holding a connection of default pool, as reads fall back to it, so
+ * default pool is sized for all the workers plus the background jobs
+ * (asynchronous copies, touch flush, event relay and lesson count
+ * reconciliation) and the plans captured by query monitor. Read only pool is
+ * sized for all the workers. Pools are process wide whatever the number of
+ * verticle instances, which only dispatch messages and are one per four
+ * workers, bounded by cores, unless set with verticleInstances.
+ * <p>
+ * Derived values are filled in a copy of the config where not set. A value
+ * set explicitly which conflicts with the derived one fails the startup,
+ * except for pools which may be larger. Verticle instances and vert.x worker
+ * pool are set by whoever deploys the module, so they can not be applied from
+ * here and a deployment which does not match them fails the startup instead.
+ * Sizing is skipped unless configured.
+ */
+public final class ConcurrencySizing {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrencySizing.class);
+    private static final String CONFIG_KEY = "sizing";
+    private static final String CONFIG_TARGET = "concurrencyTarget";
+    private static final String CONFIG_CORES = "cores";
+    private static final String CONFIG_INSTANCES = "verticleInstances";
+    private static final String DEFAULT_DATA_SOURCE = "defaultDataSource";
+    private static final String READ_ONLY_DATA_SOURCE = "readOnlyDataSource";
+    private static final String MAXIMUM_POOL_SIZE = "maximumPoolSize";
+    private static final String LANES = "lanes";
+    private static final String LANE_WORKERS = "workers";
+    private static final String LANE_MAX_CONCURRENCY = "maxConcurrency";
+    private static final String WRITE_LANE = "write";
+    private static final String BULK_LANE = "bulk";
+    private static final String COURSE_COPY = "courseCopy";
+    private static final String COPY_WORKERS = "asyncWorkers";
+    private static final String QUERY_MONITOR = "queryMonitor";
+    private static final String VIRTUAL_THREADS = "virtualThreads";
+    private static final int OPERATIONS_PER_CORE = 2;
+    private static final int WORKERS_PER_INSTANCE = 4;
+    private static final int BACKGROUND_CONNECTIONS = 3;
+    // Reads need to keep at least one worker besides one for each of write
+    // and bulk lanes
+    private static final int MIN_TARGET_WITH_LANES = 3;
+
+    private final JsonObject sizedConfig;
+    private final JsonObject report;
+
+    private ConcurrencySizing(JsonObject sizedConfig, JsonObject report) {
+        this.sizedConfig = sizedConfig;
+        this.report = report;
+    }
+
+    /*
+     * Throws IllegalStateException when config is not consistent with the
+     * concurrency target
+     */
+    public static ConcurrencySizing of(JsonObject config) {
+        JsonObject sizingConfig = config.getJsonObject(CONFIG_KEY);
+        if (sizingConfig == null) {
+            LOGGER.info("concurrency sizing is not configured, using config as is");
+            return new ConcurrencySizing(config, new JsonObject().put("enabled", false));
+        }
+
+        int cores = sizingConfig.getInteger(CONFIG_CORES, Runtime.getRuntime().availableProcessors());
+        int target = sizingConfig.getInteger(CONFIG_TARGET, cores * OPERATIONS_PER_CORE);
+        if (cores <= 0 || target <= 0) {
+            throw new IllegalStateException("Cores and concurrency target must be positive");
+        }
+        JsonObject sized = config.copy();
+        int instances = sizingConfig.getInteger(CONFIG_INSTANCES,
+            Math.max(1, Math.min(cores, target / WORKERS_PER_INSTANCE)));
+        if (instances <= 0) {
+            throw new IllegalStateException("Verticle instances must be positive");
+        }
+        JsonObject report = new JsonObject().put("enabled", true).put("cores", cores).put("concurrency_target", target)
+            .put("verticle_instances", instances);
+
+        JsonObject lanes = sized.getJsonObject(LANES);
+        if (lanes != null) {
+            if (target < MIN_TARGET_WITH_LANES) {
+                throw new IllegalStateException(
+                    "Concurrency target must be at least " + MIN_TARGET_WITH_LANES + " when lanes are used");
+            }
+            putDerived(lanes, LANE_WORKERS, target, LANES + "." + LANE_WORKERS);
+            int write = putDerivedLimit(lanes, WRITE_LANE, Math.max(1, target * 3 / 10));
+            int bulk = putDerivedLimit(lanes, BULK_LANE, Math.max(1, target / 10));
+            report.put("workers", target).put("write_concurrency", write).put("bulk_concurrency", bulk);
+        } else if (!isVirtualThreadsEnabled(sized)) {
+            // Messages are processed on vert.x worker pool which has to match
+            report.put("worker_pool_size", target);
+        }
+
+        JsonObject courseCopy = sized.getJsonObject(COURSE_COPY);
+        int copyWorkers = courseCopy == null ? 0 : courseCopy.getInteger(COPY_WORKERS, 0);
+        int explainConnections = explainConnections(sized.getJsonObject(QUERY_MONITOR));
+        report.put("default_pool_size", putPoolSize(sized, DEFAULT_DATA_SOURCE,
+            target + copyWorkers + explainConnections + BACKGROUND_CONNECTIONS));
+        if (sized.getJsonObject(READ_ONLY_DATA_SOURCE) != null) {
+            report.put("read_only_pool_size", putPoolSize(sized, READ_ONLY_DATA_SOURCE, target));
+        }
+        LOGGER.info("effective concurrency sizing {}", report);
+        return new ConcurrencySizing(sized, report);
+    }
+
+    public JsonObject sizedConfig() {
+        return this.sizedConfig;
+    }
+
+    public JsonObject report() {
+        return this.report.copy();
+    }
+
+    /*
+     * Throws IllegalStateException when verticle instances or vert.x worker
+     * pool the module is deployed with do not match the sizing
+     */
+    public void checkDeployment(Vertx vertx, int deployedInstances) {
+        this.report.put("deployed_instances", deployedInstances);
+        Integer instances = this.report.getInteger("verticle_instances");
+        if (instances != null && instances != deployedInstances) {
+            throw new IllegalStateException("Deployed with " + deployedInstances + " verticle instances which "
+                + "conflicts with " + instances + " for the concurrency target, redeploy with -instances " + instances
+                + " or set " + CONFIG_KEY + "." + CONFIG_INSTANCES);
+        }
+        Integer workerPoolSize = this.report.getInteger("worker_pool_size");
+        if (workerPoolSize == null) {
+            return;
+        }
+        int deployedPoolSize = deployedWorkerPoolSize(vertx);
+        if (deployedPoolSize < 0) {
+            LOGGER.warn("vert.x worker pool size can not be read, make sure it is {}", workerPoolSize);
+            return;
+        }
+        this.report.put("deployed_worker_pool_size", deployedPoolSize);
+        if (deployedPoolSize != workerPoolSize) {
+            throw new IllegalStateException("vert.x worker pool size is " + deployedPoolSize + " which conflicts with "
+                + workerPoolSize + " derived from target, redeploy with -Dvertx.options.workerPoolSize="
+                + workerPoolSize);
+        }
+    }
+
+    // Negative when the pool is not the fixed pool vert.x creates by default
+    private static int deployedWorkerPoolSize(Vertx vertx) {
+        if (vertx instanceof VertxInternal) {
+            ExecutorService workerPool = ((VertxInternal) vertx).getWorkerPool();
+            if (workerPool instanceof ThreadPoolExecutor) {
+                return ((ThreadPoolExecutor) workerPool).getMaximumPoolSize();
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isVirtualThreadsEnabled(JsonObject config) {
+        JsonObject threadsConfig = config.getJsonObject(VIRTUAL_THREADS);
+        return threadsConfig != null && threadsConfig.getBoolean("enabled", false);
+    }
+
+    private static int explainConnections(JsonObject monitorConfig) {
+        if (monitorConfig == null || !monitorConfig.getBoolean("enabled", false)
+            || !monitorConfig.getBoolean("explain", false)) {
+            return 0;
+        }
+        return Math.max(1, monitorConfig.getInteger(QueryMonitor.CONFIG_EXPLAIN_MAX_CONCURRENT, 1));
+    }
+
+    private static void putDerived(JsonObject config, String key, int derived, String name) {
+        Integer configured = config.getInteger(key);
+        if (configured != null && configured != derived) {
+            throw new IllegalStateException(
+                name + " is set to " + configured + " which conflicts with " + derived + " derived from target");
+        }
+        config.put(key, derived);
+    }
+
+    private static int putDerivedLimit(JsonObject lanes, String lane, int derived) {
+        JsonObject laneConfig = lanes.getJsonObject(lane);
+        if (laneConfig == null) {
+            laneConfig = new JsonObject();
+            lanes.put(lane, laneConfig);
+        }
+        Integer configured = laneConfig.getInteger(LANE_MAX_CONCURRENCY);
+        if (configured != null) {
+            return configured;
+        }
+        laneConfig.put(LANE_MAX_CONCURRENCY, derived);
+        return derived;
+    }
+
+    private static int putPoolSize(JsonObject config, String datasource, int derived) {
+        JsonObject dbConfig = config.getJsonObject(datasource);
+        if (dbConfig == null) {
+            return 0;
+        }
+        Integer configured = dbConfig.getInteger(MAXIMUM_POOL_SIZE);
+        if (configured != null && configured < derived) {
+            throw new IllegalStateException(datasource + "." + MAXIMUM_POOL_SIZE + " is set to " + configured
+                + " which is less than " + derived + " needed for the concurrency target");
+        }
+        if (configured != null) {
+            return configured;
+        }
+        dbConfig.put(MAXIMUM_POOL_SIZE, derived);
+        return derived;
+    }
+}
@@ -1,6 +1,15 @@
 package org.gooru.nucleus.handlers.courses.bootstrap.startup;
 
+import org.gooru.nucleus.handlers.courses.app.components.AsyncCourseCopier;
+import org.gooru.nucleus.handlers.courses.app.components.ChildCountReconciler;
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
 import org.gooru.nucleus.handlers.courses.app.components.DataSourceRegistry;
+import org.gooru.nucleus.handlers.courses.app.components.EventBusCodecs;
+import org.gooru.nucleus.handlers.courses.app.components.EventOutboxRelay;
+import org.gooru.nucleus.handlers.courses.app.components.IdempotencyStore;
+import org.gooru.nucleus.handlers.courses.app.components.OperationLanes;
+import org.gooru.nucleus.handlers.courses.app.components.QueryMonitor;
+import org.gooru.nucleus.handlers.courses.app.components.VirtualThreads;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -12,7 +21,17 @@ public class Initializers implements Iterable<Initializer> {
 
     public Initializers() {
         List<Initializer> initializers = new ArrayList<>();
+        // Query monitor wraps the data sources, so it needs to be set up first
+        initializers.add(QueryMonitor.getInstance());
         initializers.add(DataSourceRegistry.getInstance());
+        initializers.add(CourseTouchCoalescer.getInstance());
+        initializers.add(ChildCountReconciler.getInstance());
+        initializers.add(EventBusCodecs.getInstance());
+        initializers.add(EventOutboxRelay.getInstance());
+        initializers.add(AsyncCourseCopier.getInstance());
+        initializers.add(IdempotencyStore.getInstance());
+        initializers.add(VirtualThreads.getInstance());
+        initializers.add(OperationLanes.getInstance());
         internalIterator = initializers.iterator();
     }
 
@@ -4,6 +4,7 @@ public class MessageConstants {
 
     public static final String MSG_HEADER_OP = "mb.operation";
     public static final String MSG_HEADER_TOKEN = "session.token";
+    public static final String MSG_HEADER_IDEMPOTENCY_KEY = "idempotency.key";
     public static final String MSG_OP_AUTH_WITH_PREFS = "auth.with.prefs";
     public static final String MSG_OP_STATUS = "mb.operation.status";
     public static final String MSG_KEY_PREFS = "prefs";
@@ -22,9 +23,11 @@ public class MessageConstants {
 
     // Operation names: Also need to be updated in corresponding handlers
     public static final String MSG_OP_COURSE_GET = "course.get";
+    public static final String MSG_OP_COURSE_GET_BATCH = "course.get.batch";
     public static final String MSG_OP_COURSE_CREATE = "course.create";
     public static final String MSG_OP_COURSE_UPDATE = "course.update";
     public static final String MSG_OP_COURSE_DELETE = "course.delete";
+    public static final String MSG_OP_COURSE_COPY = "course.copy";
     public static final String MSG_OP_COURSE_COLLABORATOR_UPDATE = "course.collaborator.update";
     public static final String MSG_OP_COURSE_CONTENT_REORDER = "course.content.reorder";
     public static final String MSG_OP_COURSE_MOVE_UNIT = "course.move.unit";
@@ -32,16 +35,19 @@ public class MessageConstants {
     public static final String MSG_OP_COURSE_RESOURCES_GET = "course.resources.get";
     public static final String MSG_OP_UNIT_GET = "unit.get";
     public static final String MSG_OP_UNIT_CREATE = "unit.create";
+    public static final String MSG_OP_UNIT_CREATE_BULK = "unit.create.bulk";
     public static final String MSG_OP_UNIT_UPDATE = "unit.update";
     public static final String MSG_OP_UNIT_DELETE = "unit.delete";
     public static final String MSG_OP_UNIT_CONTENT_REORDER = "unit.content.reorder";
     public static final String MSG_OP_UNIT_MOVE_LESSON = "unit.move.lesson";
     public static final String MSG_OP_LESSON_GET = "lesson.get";
     public static final String MSG_OP_LESSON_CREATE = "lesson.create";
+    public static final String MSG_OP_LESSON_CREATE_BULK = "lesson.create.bulk";
     public static final String MSG_OP_LESSON_UPDATE = "lesson.update";
     public static final String MSG_OP_LESSON_DELETE = "lesson.delete";
     public static final String MSG_OP_LESSON_CONTENT_REORDER = "lesson.content.reorder";
     public static final String MSG_OP_LESSON_MOVE_COLLECTION = "lesson.move.collection";
+    public static final String MSG_OP_LESSON_MOVE_COLLECTIONS = "lesson.move.collections";
 
     // Containers for different responses
     public static final String RESP_CONTAINER_MBUS = "mb.container";
@@ -51,6 +57,15 @@ public class MessageConstants {
     public static final String UNIT_ID = "unitId";
     public static final String LESSON_ID = "lessonId";
     public static final String TAXONOMY = "taxonomy";
+    public static final String IDS = "ids";
+    public static final String LIMIT = "limit";
+    public static final String CURSOR = "cursor";
+    public static final String COUNT = "count";
+    public static final String FIELDS = "fields";
     public static final String RESP_JSON_KEY_RESOURCES = "resources";
+    public static final String RESP_JSON_KEY_NEXT_CURSOR = "next_cursor";
+    public static final String RESP_JSON_KEY_TOTAL = "total";
+    public static final String RESP_JSON_KEY_COURSES = "courses";
+    public static final String RESP_JSON_KEY_NOT_FOUND = "not_found";
 
 }
@@ -7,5 +7,7 @@ public class MessagebusEndpoints {
      */
     public static final String MBEP_COURSE = "org.gooru.nucleus.message.bus.course";
     public static final String MBEP_EVENT = "org.gooru.nucleus.message.bus.publisher.event";
+    // Operational end point, not exposed via gateway
+    public static final String MBEP_COURSE_ADMIN = "org.gooru.nucleus.message.bus.course.admin";
 
 }
@@ -1,113 +1,92 @@
 package org.gooru.nucleus.handlers.courses.processors;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.UUID;
 
+import org.gooru.nucleus.handlers.courses.app.components.IdempotencyStore;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.exceptions.InvalidRequestException;
 import org.gooru.nucleus.handlers.courses.processors.exceptions.InvalidUserException;
-import org.gooru.nucleus.handlers.courses.processors.repositories.RepoBuilder;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.transactions.TransactionExecutor;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.gooru.nucleus.handlers.courses.processors.utils.UuidUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.JsonObject;
 
+/**
+ * Dispatches messages to their handlers as described in OperationRegistry. It
+ * does not hold any state of message, so one instance serves all of them.
+ * <p>
+ * Idempotent operations carrying an idempotency key header are run once per
+ * key and user, retries are answered by IdempotencyStore. Stored response is
+ * keyed by the target ids and a fingerprint of the body as well, so that a key
+ * reused for another request runs it instead of replaying an unrelated
+ * response. Concurrent identical
+ * reads of coalesced operations share one execution through ReadCoalescer.
+ */
 class MessageProcessor implements Processor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Processor.class);
-    private final Message<Object> message;
-    private String userId;
-    private JsonObject prefs;
-    private JsonObject request;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private final OperationRegistry registry;
+    private final TransactionExecutor executor;
+    private final IdempotencyStore idempotencyStore;
+    private final ReadCoalescer readCoalescer;
 
-    public MessageProcessor(Message<Object> message) {
-        this.message = message;
+    MessageProcessor(OperationRegistry registry, TransactionExecutor executor, IdempotencyStore idempotencyStore,
+        ReadCoalescer readCoalescer) {
+        this.registry = registry;
+        this.executor = executor;
+        this.idempotencyStore = idempotencyStore;
+        this.readCoalescer = readCoalescer;
     }
 
     @Override
-    public MessageResponse process() {
-        MessageResponse result;
+    public MessageResponse process(Message<Object> message) {
         try {
             // Validate the message itself
-            ExecutionResult<MessageResponse> validateResult = validateAndInitialize();
+            ExecutionResult<MessageResponse> validateResult = validateMessage(message);
             if (validateResult.isCompleted()) {
                 return validateResult.result();
             }
 
             final String msgOp = message.headers().get(MessageConstants.MSG_HEADER_OP);
             LOGGER.debug("## Processing Request : {} ##", msgOp);
-            switch (msgOp) {
-            case MessageConstants.MSG_OP_COURSE_CREATE:
-                result = processCourseCreate();
-                break;
-            case MessageConstants.MSG_OP_COURSE_GET:
-                result = processCourseGet();
-                break;
-            case MessageConstants.MSG_OP_COURSE_UPDATE:
-                result = processCourseUpdate();
-                break;
-            case MessageConstants.MSG_OP_COURSE_DELETE:
-                result = processCourseDelete();
-                break;
-            case MessageConstants.MSG_OP_COURSE_CONTENT_REORDER:
-                result = processCourseUnitReorder();
-                break;
-            case MessageConstants.MSG_OP_COURSE_COLLABORATOR_UPDATE:
-                result = processCourseCollaboratorUpdate();
-                break;
-            case MessageConstants.MSG_OP_COURSE_MOVE_UNIT:
-                result = processUnitMove();
-                break;
-            case MessageConstants.MSG_OP_COURSE_REORDER:
-                result = processCourseReorder();
-                break;
-            case MessageConstants.MSG_OP_COURSE_RESOURCES_GET:
-                result = processCourseResourcesGet();
-                break;
-            case MessageConstants.MSG_OP_UNIT_CREATE:
-                result = processUnitCreate();
-                break;
-            case MessageConstants.MSG_OP_UNIT_UPDATE:
-                result = processUnitUpdate();
-                break;
-            case MessageConstants.MSG_OP_UNIT_DELETE:
-                result = processUnitDelete();
-                break;
-            case MessageConstants.MSG_OP_UNIT_GET:
-                result = processUnitGet();
-                break;
-            case MessageConstants.MSG_OP_UNIT_CONTENT_REORDER:
-                result = processUnitContentReorder();
-                break;
-            case MessageConstants.MSG_OP_UNIT_MOVE_LESSON:
-                result = processLessonMove();
-                break;
-            case MessageConstants.MSG_OP_LESSON_CREATE:
-                result = processLessonCreate();
-                break;
-            case MessageConstants.MSG_OP_LESSON_UPDATE:
-                result = processLessonUpdate();
-                break;
-            case MessageConstants.MSG_OP_LESSON_DELETE:
-                result = processLessonDelete();
-                break;
-            case MessageConstants.MSG_OP_LESSON_GET:
-                result = processLessonGet();
-                break;
-            case MessageConstants.MSG_OP_LESSON_CONTENT_REORDER:
-                result = processLessonContentReorder();
-                break;
-            case MessageConstants.MSG_OP_LESSON_MOVE_COLLECTION:
-                result = processCollectionMove();
-                break;
-            default:
+            OperationDescriptor descriptor = registry.lookup(msgOp);
+            if (descriptor == null) {
                 LOGGER.error("Invalid operation type passed in, not able to handle");
                 throw new InvalidRequestException();
             }
-            return result;
+
+            ProcessorContext context = createContext(message);
+            MessageResponse invalidIdResponse = checkRequiredIds(descriptor, context);
+            if (invalidIdResponse != null) {
+                return invalidIdResponse;
+            }
+
+            String idempotencyKey = idempotencyKey(message, descriptor, context);
+            if (idempotencyKey == null) {
+                return execute(descriptor, context);
+            }
+            MessageResponse storedResponse = idempotencyStore.claim(idempotencyKey);
+            if (storedResponse != null) {
+                return storedResponse;
+            }
+            MessageResponse response = null;
+            try {
+                response = execute(descriptor, context);
+                return response;
+            } finally {
+                idempotencyStore.complete(idempotencyKey, response);
+            }
         } catch (InvalidRequestException e) {
             LOGGER.error("Invalid request");
             return MessageResponseFactory.createInternalErrorResponse("Invalid request");
@@ -115,412 +94,114 @@ class MessageProcessor implements Processor {
             LOGGER.error("User is not valid");
             return MessageResponseFactory.createForbiddenResponse();
         } catch (Throwable t) {
-            LOGGER.error("Exception while processing request");
+            LOGGER.error("Exception while processing request", t);
             return MessageResponseFactory.createInternalErrorResponse("Something wrong in database transaction");
         }
     }
 
-    private MessageResponse processCourseReorder() {
-        ProcessorContext context = createContext();
-        return new RepoBuilder().buildCourseRepo(context).reorderCourse();
-    }
-    
-    private MessageResponse processCourseResourcesGet() {
-        ProcessorContext context = createContext();
-        return new RepoBuilder().buildCourseRepo(context).fetchResourcesForCourse();
-    }
-    
-    private MessageResponse processCollectionMove() {
-        ProcessorContext context = createContext();
-
-        if (!checkCourseId(context)) {
-            LOGGER.error("Course id not available to move collection. Aborting");
-            return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-        }
-
-        if (!checkUnitId(context)) {
-            LOGGER.error("Unit id not available to move collection. Aborting");
-            return MessageResponseFactory.createInvalidRequestResponse("Invalid unit id");
-        }
-
-        if (!checkLessonId(context)) {
-            LOGGER.error("Lesson id not available to move collection. Aborting");
-            return MessageResponseFactory.createInvalidRequestResponse("Invalid lesson id");
-        }
-
-        return new RepoBuilder().buildLessonRepo(context).moveCollectionToLesson();
-    }
-
-    private MessageResponse processLessonMove() {
-        ProcessorContext context = createContext();
-
-        if (!checkCourseId(context)) {
-            LOGGER.error("Course id not available to move lesson. Aborting");
-            return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-        }
-
-        if (!checkUnitId(context)) {
-            LOGGER.error("Unit id not available to move lesson. Aborting");
-            return MessageResponseFactory.createInvalidRequestResponse("Invalid unit id");
-        }
-
-        return new RepoBuilder().buildUnitRepo(context).moveLessonToUnit();
-    }
-
-    private MessageResponse processUnitMove() {
-        ProcessorContext context = createContext();
-
-        if (!checkCourseId(context)) {
-            LOGGER.error("Course id not available to move unit. Aborting");
-            return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
+    private MessageResponse execute(OperationDescriptor descriptor, ProcessorContext context) {
+        if (descriptor.coalesced()) {
+            return readCoalescer.execute(descriptor.operation(), coalescingKey(descriptor, context),
+                () -> executeTransaction(descriptor, context));
         }
-
-        return new RepoBuilder().buildCourseRepo(context).moveUnitToCourse();
+        return executeTransaction(descriptor, context);
     }
 
-    private MessageResponse processLessonContentReorder() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Course id not available to reorder lesson content. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            if (!checkUnitId(context)) {
-                LOGGER.error("Unit id not available to reorder lesson content. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid unit id");
-            }
-
-            if (!checkLessonId(context)) {
-                LOGGER.error("Lesson id not available to reorder lesson content. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid lesson id");
-            }
-
-            LOGGER.info("reorder content of lesson {} of unit {}", context.lessonId(), context.unitId());
-            return new RepoBuilder().buildLessonRepo(context).reorderCollectionsAssessmentsInLesson();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while reordering lesson content", t);
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
-        }
+    private MessageResponse executeTransaction(OperationDescriptor descriptor, ProcessorContext context) {
+        return executor.executeTransaction(descriptor.createHandler(context),
+            descriptor.pool() == OperationDescriptor.Pool.READ_ONLY, context.sessionToken());
     }
 
-    private MessageResponse processLessonGet() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Course id not available to get lesson. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            if (!checkUnitId(context)) {
-                LOGGER.error("Unit id not available to get lesson. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid unit id");
-            }
-
-            if (!checkLessonId(context)) {
-                LOGGER.error("Lesson id not available to get lesson. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid lesson id");
-            }
-
-            LOGGER.info("getting lesson {} of unit {}", context.lessonId(), context.unitId());
-            return new RepoBuilder().buildLessonRepo(context).fetchLesson();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while getting lesson", t);
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
-        }
+    // Everything the response of a coalesced read depends on, except the user
+    private static String coalescingKey(OperationDescriptor descriptor, ProcessorContext context) {
+        return descriptor.operation() + '|' + context.courseUuid() + '|' + context.unitUuid() + '|'
+            + context.lessonUuid() + '|' + context.request().encode();
     }
 
-    private MessageResponse processLessonDelete() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Course id not available to delete lesson. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            if (!checkUnitId(context)) {
-                LOGGER.error("Unit id not available to delete lesson. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid unit id");
-            }
-
-            if (!checkLessonId(context)) {
-                LOGGER.error("Lesson id not available to delete lesson. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid lesson id");
-            }
-
-            LOGGER.info("deleting lesson {} of unit {}", context.lessonId(), context.unitId());
-            return new RepoBuilder().buildLessonRepo(context).deleteLesson();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while deleting lesson", t);
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
+    /*
+     * Keys are scoped to user and operation, so that same key sent by different
+     * users or for different operations does not collide. Returns null when
+     * there is nothing to deduplicate.
+     */
+    private String idempotencyKey(Message<Object> message, OperationDescriptor descriptor, ProcessorContext context) {
+        if (!descriptor.idempotent() || !idempotencyStore.isEnabled()) {
+            return null;
         }
-    }
-
-    private MessageResponse processLessonUpdate() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Course id not available to update lesson. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            if (!checkUnitId(context)) {
-                LOGGER.error("Unit id not available to update lesson. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid unit id");
-            }
-
-            if (!checkLessonId(context)) {
-                LOGGER.error("Lesson id not available to update lesson. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid lesson id");
-            }
-
-            LOGGER.info("updating lesson {} of unit {}", context.lessonId(), context.unitId());
-            return new RepoBuilder().buildLessonRepo(context).updateLesson();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while updating lesson", t);
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
+        String key = message.headers().get(MessageConstants.MSG_HEADER_IDEMPOTENCY_KEY);
+        if (key == null || key.isEmpty()) {
+            return null;
         }
-    }
-
-    private MessageResponse processLessonCreate() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Course id not available to create lesson. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            if (!checkUnitId(context)) {
-                LOGGER.error("Unit id not available to create lesson. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid unit id");
-            }
-
-            LOGGER.info("creating lesson for unit {} of course {}", context.unitId(), context.courseId());
-            return new RepoBuilder().buildLessonRepo(context).createLesson();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while creating lesson", t);
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
+        if (key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            LOGGER.warn("idempotency key longer than {} characters ignored", MAX_IDEMPOTENCY_KEY_LENGTH);
+            return null;
         }
+        return context.userId() + ':' + descriptor.operation() + ':' + key + ':' + context.courseId() + ':'
+            + context.unitId() + ':' + context.lessonId() + ':' + fingerprint(context.request());
     }
 
-    private MessageResponse processUnitContentReorder() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Course id not available to reorder lessons. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            if (!checkUnitId(context)) {
-                LOGGER.error("Unit id not available to reorder lessons. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid unit id");
-            }
-
-            LOGGER.info("reordering lessons for unit {} of course {}", context.unitId(), context.courseId());
-            return new RepoBuilder().buildUnitRepo(context).reorderLessonInUnit();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while reordering lessons", t);
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
-        }
-    }
-
-    private MessageResponse processUnitGet() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Course id not available to get unit. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            if (!checkUnitId(context)) {
-                LOGGER.error("Unit id not available to get unit. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid unit id");
-            }
-
-            LOGGER.info("getting unit {} of course {}", context.unitId(), context.courseId());
-            return new RepoBuilder().buildUnitRepo(context).fetchUnit();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while getting unit", t);
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
-        }
-    }
-
-    private MessageResponse processUnitDelete() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Course id not available to delete unit. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            if (!checkUnitId(context)) {
-                LOGGER.error("Unit id not available to delete unit. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid unit id");
-            }
-
-            LOGGER.info("deleting unit {} of course {}", context.unitId(), context.courseId());
-            return new RepoBuilder().buildUnitRepo(context).deleteUnit();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while deleting unit", t);
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
-        }
-    }
-
-    private MessageResponse processUnitUpdate() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Course id not available to update unit. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            if (!checkUnitId(context)) {
-                LOGGER.error("Unit id not available to update unit. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid unit id");
-            }
-
-            LOGGER.info("updating unit {} of course {}", context.unitId(), context.courseId());
-            return new RepoBuilder().buildUnitRepo(context).updateUnit();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while updating unit", t);
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
-        }
-    }
-
-    private MessageResponse processUnitCreate() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Course id not available to create unit. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            LOGGER.info("creating new unit for course {}", context.courseId());
-            return new RepoBuilder().buildUnitRepo(context).createUnit();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while creating unit", t);
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
-        }
-    }
-
-    private boolean checkLessonId(ProcessorContext context) {
-        return validateId(context.lessonId());
-    }
-
-    private boolean checkUnitId(ProcessorContext context) {
-        return validateId(context.unitId());
-    }
-
-    private boolean checkCourseId(ProcessorContext context) {
-        return validateId(context.courseId());
-    }
-
-    private MessageResponse processCourseCollaboratorUpdate() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Invalid request, course id not available. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            LOGGER.info("updating collaborators for course {}", context.courseId());
-            return new RepoBuilder().buildCourseCollaboratorRepo(context).updateCollaborator();
-        } catch (Throwable t) {
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
+    private static String fingerprint(JsonObject request) {
+        if (request == null) {
+            return "";
         }
-    }
-
-    private MessageResponse processCourseUnitReorder() {
         try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Invalid request, course id not available. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            LOGGER.info("reordering units in course {}", context.courseId());
-            return new RepoBuilder().buildCourseRepo(context).reorderUnitInCourse();
-        } catch (Throwable t) {
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(request.encode().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
         }
     }
 
-    private MessageResponse processCourseDelete() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Invalid request, course id not available. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
+    private MessageResponse checkRequiredIds(OperationDescriptor descriptor, ProcessorContext context) {
+        for (OperationDescriptor.RequiredId requiredId : descriptor.requiredIds()) {
+            if (idOf(requiredId, context) == null) {
+                LOGGER.error("{} not available for '{}'. Aborting", requiredId.displayName(), descriptor.operation());
+                return MessageResponseFactory.createInvalidRequestResponse(requiredId.errorMessage());
             }
-
-            LOGGER.info("deleting course {}", context.courseId());
-            return new RepoBuilder().buildCourseRepo(context).deleteCourse();
-        } catch (Throwable t) {
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
         }
+        return null;
     }
 
-    private MessageResponse processCourseUpdate() {
-        try {
-            ProcessorContext context = createContext();
-            if (!checkCourseId(context)) {
-                LOGGER.error("Invalid request, course id not available. Aborting");
-                return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-            }
-
-            LOGGER.info("updating course {}", context.courseId());
-            return new RepoBuilder().buildCourseRepo(context).updateCourse();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while updating course", t.getMessage());
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
-        }
-    }
-
-    private MessageResponse processCourseGet() {
-        ProcessorContext context = createContext();
-        if (!checkCourseId(context)) {
-            LOGGER.error("Invalid request, course id not available. Aborting");
-            return MessageResponseFactory.createInvalidRequestResponse("Invalid course id");
-        }
-
-        LOGGER.info("getting course {}", context.courseId());
-        return new RepoBuilder().buildCourseRepo(context).fetchCourse();
-    }
-
-    private MessageResponse processCourseCreate() {
-        try {
-            ProcessorContext context = createContext();
-            LOGGER.info("Creating new course");
-            return new RepoBuilder().buildCourseRepo(context).createCourse();
-        } catch (Throwable t) {
-            LOGGER.error("Exception while creating course", t.getMessage());
-            return MessageResponseFactory.createInternalErrorResponse(t.getMessage());
+    private static UUID idOf(OperationDescriptor.RequiredId requiredId, ProcessorContext context) {
+        switch (requiredId) {
+        case COURSE:
+            return context.courseUuid();
+        case UNIT:
+            return context.unitUuid();
+        case LESSON:
+            return context.lessonUuid();
+        default:
+            return null;
         }
     }
 
-    private ProcessorContext createContext() {
+    private ProcessorContext createContext(Message<Object> message) {
+        JsonObject body = (JsonObject) message.body();
         String courseId = message.headers().get(MessageConstants.COURSE_ID);
         String unitId = message.headers().get(MessageConstants.UNIT_ID);
         String lessonId = message.headers().get(MessageConstants.LESSON_ID);
-        return new ProcessorContext(userId, prefs, request, courseId, unitId, lessonId);
+        return new ProcessorContext(body.getString(MessageConstants.MSG_USER_ID),
+            body.getJsonObject(MessageConstants.MSG_KEY_PREFS), body.getJsonObject(MessageConstants.MSG_HTTP_BODY),
+            courseId, unitId, lessonId, body.getString(MessageConstants.MSG_HEADER_TOKEN));
     }
 
-    private ExecutionResult<MessageResponse> validateAndInitialize() {
+    private ExecutionResult<MessageResponse> validateMessage(Message<Object> message) {
         if (message == null || !(message.body() instanceof JsonObject)) {
             LOGGER.error("Invalid message received, either null or body of message is not JsonObject ");
             return new ExecutionResult<>(MessageResponseFactory.createInvalidRequestResponse(),
                 ExecutionResult.ExecutionStatus.FAILED);
         }
 
-        userId = ((JsonObject) message.body()).getString(MessageConstants.MSG_USER_ID);
+        String userId = ((JsonObject) message.body()).getString(MessageConstants.MSG_USER_ID);
         if (!validateUser(userId)) {
             LOGGER.error("Invalid user id passed. Not authorized.");
             return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(),
                 ExecutionResult.ExecutionStatus.FAILED);
         }
 
-        prefs = ((JsonObject) message.body()).getJsonObject(MessageConstants.MSG_KEY_PREFS);
-        request = ((JsonObject) message.body()).getJsonObject(MessageConstants.MSG_HTTP_BODY);
+        JsonObject prefs = ((JsonObject) message.body()).getJsonObject(MessageConstants.MSG_KEY_PREFS);
+        JsonObject request = ((JsonObject) message.body()).getJsonObject(MessageConstants.MSG_HTTP_BODY);
 
         if (prefs == null || prefs.isEmpty()) {
             LOGGER.error("Invalid preferences obtained, probably not authorized properly");
@@ -540,21 +221,6 @@ class MessageProcessor implements Processor {
 
     private boolean validateUser(String userId) {
         return !(userId == null || userId.isEmpty())
-            && (userId.equalsIgnoreCase(MessageConstants.MSG_USER_ANONYMOUS) || validateUuid(userId));
-    }
-
-    private boolean validateId(String id) {
-        return !(id == null || id.isEmpty()) && validateUuid(id);
-    }
-
-    private boolean validateUuid(String uuidString) {
-        try {
-            UUID.fromString(uuidString);
-            return true;
-        } catch (IllegalArgumentException e) {
-            return false;
-        } catch (Exception e) {
-            return false;
-        }
+            && (userId.equalsIgnoreCase(MessageConstants.MSG_USER_ANONYMOUS) || UuidUtils.isValid(userId));
     }
 }
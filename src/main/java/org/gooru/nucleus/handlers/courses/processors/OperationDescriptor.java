@@ -0,0 +1,174 @@
+package org.gooru.nucleus.handlers.courses.processors;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.DBHandler;
+
+/**
+ * Describes how an operation coming on message bus is to be handled: which ids
+ * need to be present in headers, which handler to run, whether it reads or
+ * writes, which pool it runs on, whether retries with same idempotency key
+ * are answered from the stored response and whether concurrent identical reads
+ * are folded into one.
+ * <p>
+ * Descriptors are immutable and built once at startup by OperationRegistry.
+ */
+public final class OperationDescriptor {
+
+    public enum OperationClass {
+        READ,
+        WRITE,
+        // Writes touching a whole course or many rows at once, scheduled in
+        // their own lane so that they do not hold up interactive writes
+        BULK
+    }
+
+    public enum Pool {
+        // Read write pool, all the statements run in a transaction
+        DEFAULT,
+        // Read only auto commit pool, falls back to default when not configured
+        READ_ONLY
+    }
+
+    public enum RequiredId {
+        COURSE("Course id", "Invalid course id"),
+        UNIT("Unit id", "Invalid unit id"),
+        LESSON("Lesson id", "Invalid lesson id");
+
+        private final String displayName;
+        private final String errorMessage;
+
+        RequiredId(String displayName, String errorMessage) {
+            this.displayName = displayName;
+            this.errorMessage = errorMessage;
+        }
+
+        public String displayName() {
+            return this.displayName;
+        }
+
+        public String errorMessage() {
+            return this.errorMessage;
+        }
+    }
+
+    private final String operation;
+    private final Set<RequiredId> requiredIds;
+    private final Function<ProcessorContext, DBHandler> handlerFactory;
+    private final OperationClass operationClass;
+    private final Pool pool;
+    private final boolean idempotent;
+    private final boolean coalesced;
+
+    private OperationDescriptor(Builder builder) {
+        this.operation = builder.operation;
+        this.requiredIds = Collections.unmodifiableSet(builder.requiredIds);
+        this.handlerFactory = builder.handlerFactory;
+        this.operationClass = builder.operationClass;
+        this.pool = builder.pool != null ? builder.pool
+            : builder.operationClass == OperationClass.READ ? Pool.READ_ONLY : Pool.DEFAULT;
+        this.idempotent = builder.idempotent;
+        this.coalesced = builder.coalesced;
+    }
+
+    public String operation() {
+        return this.operation;
+    }
+
+    public Set<RequiredId> requiredIds() {
+        return this.requiredIds;
+    }
+
+    public OperationClass operationClass() {
+        return this.operationClass;
+    }
+
+    public Pool pool() {
+        return this.pool;
+    }
+
+    public boolean idempotent() {
+        return this.idempotent;
+    }
+
+    public boolean coalesced() {
+        return this.coalesced;
+    }
+
+    public DBHandler createHandler(ProcessorContext context) {
+        return this.handlerFactory.apply(context);
+    }
+
+    public static class Builder {
+        private final String operation;
+        private final Function<ProcessorContext, DBHandler> handlerFactory;
+        private final Set<RequiredId> requiredIds = EnumSet.noneOf(RequiredId.class);
+        private OperationClass operationClass = OperationClass.WRITE;
+        private Pool pool = null;
+        private boolean idempotent = false;
+        private boolean coalesced = false;
+
+        public Builder(String operation, Function<ProcessorContext, DBHandler> handlerFactory) {
+            this.operation = operation;
+            this.handlerFactory = handlerFactory;
+        }
+
+        public Builder requires(RequiredId... ids) {
+            Collections.addAll(this.requiredIds, ids);
+            return this;
+        }
+
+        public Builder read() {
+            this.operationClass = OperationClass.READ;
+            return this;
+        }
+
+        public Builder write() {
+            this.operationClass = OperationClass.WRITE;
+            return this;
+        }
+
+        public Builder bulk() {
+            this.operationClass = OperationClass.BULK;
+            return this;
+        }
+
+        // Pool defaults to read only for reads and default for writes
+        public Builder onPool(Pool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        // Retries carrying the same idempotency key get the first response
+        public Builder idempotent() {
+            this.idempotent = true;
+            return this;
+        }
+
+        // Concurrent reads with same ids and request share one execution, so
+        // response must not depend on the requesting user
+        public Builder coalesced() {
+            this.coalesced = true;
+            return this;
+        }
+
+        public OperationDescriptor build() {
+            if (this.operation == null || this.handlerFactory == null) {
+                throw new IllegalStateException("Operation and handler are needed to describe an operation");
+            }
+            if (this.operationClass != OperationClass.READ && this.pool == Pool.READ_ONLY) {
+                throw new IllegalStateException("Write operation " + this.operation + " can not run on read only pool");
+            }
+            if (this.operationClass == OperationClass.READ && this.idempotent) {
+                throw new IllegalStateException("Read operation " + this.operation + " does not need idempotency key");
+            }
+            if (this.operationClass != OperationClass.READ && this.coalesced) {
+                throw new IllegalStateException("Write operation " + this.operation + " can not be coalesced");
+            }
+            return new OperationDescriptor(this);
+        }
+    }
+}
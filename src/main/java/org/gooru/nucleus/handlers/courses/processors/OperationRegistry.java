@@ -0,0 +1,134 @@
+package org.gooru.nucleus.handlers.courses.processors;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
+import org.gooru.nucleus.handlers.courses.processors.OperationDescriptor.RequiredId;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.CopyCourseHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.CreateCourseHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.CreateLessonHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.CreateLessonsHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.CreateUnitHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.CreateUnitsHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.DBHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.DeleteCourseHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.DeleteLessonHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.DeleteUnitHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.FetchCourseHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.FetchCoursesHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.FetchLessonHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.FetchResourcesForCourseHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.FetchUnitHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.MoveCollectionToLessonHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.MoveCollectionsToLessonHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.MoveLessonToUnitHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.MoveUnitToCourseHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.ReorderCollectionsAssessmentsInLessonHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.ReorderCourseHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.ReorderLessonInUnitHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.ReorderUnitInCourseHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.UpdateCollaboratorHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.UpdateCourseHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.UpdateLessonHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.UpdateUnitHandler;
+
+/**
+ * Maps each operation coming in mb.operation header to its descriptor. This is
+ * the one place where an operation needs to be registered.
+ */
+public final class OperationRegistry {
+
+    private final Map<String, OperationDescriptor> operations;
+
+    private OperationRegistry() {
+        Map<String, OperationDescriptor> registry = new HashMap<>();
+
+        // Course operations
+        register(registry, operation(MessageConstants.MSG_OP_COURSE_CREATE, CreateCourseHandler::new).idempotent());
+        register(registry, operation(MessageConstants.MSG_OP_COURSE_GET, FetchCourseHandler::new)
+            .requires(RequiredId.COURSE).read().coalesced());
+        register(registry, operation(MessageConstants.MSG_OP_COURSE_GET_BATCH, FetchCoursesHandler::new).read()
+            .coalesced());
+        register(registry, operation(MessageConstants.MSG_OP_COURSE_UPDATE, UpdateCourseHandler::new)
+            .requires(RequiredId.COURSE));
+        register(registry, operation(MessageConstants.MSG_OP_COURSE_DELETE, DeleteCourseHandler::new)
+            .requires(RequiredId.COURSE).bulk());
+        register(registry, operation(MessageConstants.MSG_OP_COURSE_COPY, CopyCourseHandler::new)
+            .requires(RequiredId.COURSE).bulk().idempotent());
+        register(registry, operation(MessageConstants.MSG_OP_COURSE_CONTENT_REORDER, ReorderUnitInCourseHandler::new)
+            .requires(RequiredId.COURSE));
+        register(registry, operation(MessageConstants.MSG_OP_COURSE_COLLABORATOR_UPDATE, UpdateCollaboratorHandler::new)
+            .requires(RequiredId.COURSE));
+        register(registry, operation(MessageConstants.MSG_OP_COURSE_MOVE_UNIT, MoveUnitToCourseHandler::new)
+            .requires(RequiredId.COURSE).bulk().idempotent());
+        register(registry, operation(MessageConstants.MSG_OP_COURSE_REORDER, ReorderCourseHandler::new).bulk());
+        register(registry, operation(MessageConstants.MSG_OP_COURSE_RESOURCES_GET, FetchResourcesForCourseHandler::new)
+            .read());
+
+        // Unit operations
+        register(registry, operation(MessageConstants.MSG_OP_UNIT_CREATE, CreateUnitHandler::new)
+            .requires(RequiredId.COURSE).idempotent());
+        register(registry, operation(MessageConstants.MSG_OP_UNIT_CREATE_BULK, CreateUnitsHandler::new)
+            .requires(RequiredId.COURSE).bulk().idempotent());
+        register(registry, operation(MessageConstants.MSG_OP_UNIT_UPDATE, UpdateUnitHandler::new)
+            .requires(RequiredId.COURSE, RequiredId.UNIT));
+        register(registry, operation(MessageConstants.MSG_OP_UNIT_DELETE, DeleteUnitHandler::new)
+            .requires(RequiredId.COURSE, RequiredId.UNIT));
+        register(registry, operation(MessageConstants.MSG_OP_UNIT_GET, FetchUnitHandler::new)
+            .requires(RequiredId.COURSE, RequiredId.UNIT).read().coalesced());
+        register(registry, operation(MessageConstants.MSG_OP_UNIT_CONTENT_REORDER, ReorderLessonInUnitHandler::new)
+            .requires(RequiredId.COURSE, RequiredId.UNIT));
+        register(registry, operation(MessageConstants.MSG_OP_UNIT_MOVE_LESSON, MoveLessonToUnitHandler::new)
+            .requires(RequiredId.COURSE, RequiredId.UNIT).idempotent());
+
+        // Lesson operations
+        register(registry, operation(MessageConstants.MSG_OP_LESSON_CREATE, CreateLessonHandler::new)
+            .requires(RequiredId.COURSE, RequiredId.UNIT).idempotent());
+        register(registry, operation(MessageConstants.MSG_OP_LESSON_CREATE_BULK, CreateLessonsHandler::new)
+            .requires(RequiredId.COURSE, RequiredId.UNIT).bulk().idempotent());
+        register(registry, operation(MessageConstants.MSG_OP_LESSON_UPDATE, UpdateLessonHandler::new)
+            .requires(RequiredId.COURSE, RequiredId.UNIT, RequiredId.LESSON));
+        register(registry, operation(MessageConstants.MSG_OP_LESSON_DELETE, DeleteLessonHandler::new)
+            .requires(RequiredId.COURSE, RequiredId.UNIT, RequiredId.LESSON));
+        register(registry, operation(MessageConstants.MSG_OP_LESSON_GET, FetchLessonHandler::new)
+            .requires(RequiredId.COURSE, RequiredId.UNIT, RequiredId.LESSON).read().coalesced());
+        register(registry,
+            operation(MessageConstants.MSG_OP_LESSON_CONTENT_REORDER, ReorderCollectionsAssessmentsInLessonHandler::new)
+                .requires(RequiredId.COURSE, RequiredId.UNIT, RequiredId.LESSON));
+        register(registry, operation(MessageConstants.MSG_OP_LESSON_MOVE_COLLECTION, MoveCollectionToLessonHandler::new)
+            .requires(RequiredId.COURSE, RequiredId.UNIT, RequiredId.LESSON).idempotent());
+        register(registry,
+            operation(MessageConstants.MSG_OP_LESSON_MOVE_COLLECTIONS, MoveCollectionsToLessonHandler::new)
+                .requires(RequiredId.COURSE, RequiredId.UNIT, RequiredId.LESSON).bulk().idempotent());
+
+        this.operations = Collections.unmodifiableMap(registry);
+    }
+
+    public static OperationRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // Returns null if operation is not known
+    public OperationDescriptor lookup(String operation) {
+        return operation != null ? this.operations.get(operation) : null;
+    }
+
+    private static OperationDescriptor.Builder operation(String operation,
+        Function<ProcessorContext, DBHandler> handlerFactory) {
+        return new OperationDescriptor.Builder(operation, handlerFactory);
+    }
+
+    private static void register(Map<String, OperationDescriptor> registry, OperationDescriptor.Builder builder) {
+        OperationDescriptor descriptor = builder.build();
+        if (registry.putIfAbsent(descriptor.operation(), descriptor) != null) {
+            throw new IllegalStateException("Operation " + descriptor.operation() + " is registered twice");
+        }
+    }
+
+    private static class Holder {
+        private static final OperationRegistry INSTANCE = new OperationRegistry();
+    }
+}
@@ -2,6 +2,8 @@ package org.gooru.nucleus.handlers.courses.processors;
 
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 
+import io.vertx.core.eventbus.Message;
+
 public interface Processor {
-        MessageResponse process();
+    MessageResponse process(Message<Object> message);
 }
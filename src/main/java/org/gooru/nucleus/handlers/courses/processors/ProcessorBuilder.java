@@ -1,16 +1,21 @@
 package org.gooru.nucleus.handlers.courses.processors;
 
-import io.vertx.core.eventbus.Message;
+import org.gooru.nucleus.handlers.courses.app.components.IdempotencyStore;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.transactions.TransactionExecutor;
 
-public class ProcessorBuilder {
+/**
+ * Processor is stateless, so the same instance is handed out for every message
+ */
+public final class ProcessorBuilder {
 
-    private final Message<Object> message;
+    private static final Processor PROCESSOR = new MessageProcessor(OperationRegistry.getInstance(),
+        new TransactionExecutor(), IdempotencyStore.getInstance(), new ReadCoalescer());
 
-    public ProcessorBuilder(Message<Object> message) {
-        this.message = message;
+    private ProcessorBuilder() {
+        throw new AssertionError();
     }
 
-    public Processor build() {
-        return new MessageProcessor(message);
+    public static Processor build() {
+        return PROCESSOR;
     }
 }
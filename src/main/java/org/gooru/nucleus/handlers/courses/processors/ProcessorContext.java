@@ -1,11 +1,31 @@
 package org.gooru.nucleus.handlers.courses.processors;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.gooru.nucleus.handlers.courses.processors.utils.UuidUtils;
+
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 /**
  * Created by ashish on 7/1/16.
+ * <p>
+ * Context does not copy prefs and request from the message, it holds read only
+ * views over them instead. Attempts to modify the top level of either fail,
+ * nested objects are not guarded and handlers are expected to only read them.
+ * Message decoded from the clustered event bus carries nested objects and
+ * arrays as plain maps and lists, which entities do not bind as jsonb. Those
+ * are wrapped in JsonObject and JsonArray at the top level, as copy() used to
+ * do, without copying their content.
+ * <p>
+ * Ids are also parsed once here. Typed accessors return null when the id is
+ * missing or not a valid uuid, e.g. for anonymous user.
  */
-public class ProcessorContext {
+public final class ProcessorContext {
 
     private final String userId;
     private final JsonObject prefs;
@@ -13,18 +33,28 @@ public class ProcessorContext {
     private final String courseId;
     private final String unitId;
     private final String lessonId;
+    private final String sessionToken;
+    private final UUID userUuid;
+    private final UUID courseUuid;
+    private final UUID unitUuid;
+    private final UUID lessonUuid;
 
     public ProcessorContext(String userId, JsonObject prefs, JsonObject request, String courseId, String unitId,
-        String lessonId) {
+        String lessonId, String sessionToken) {
         if (prefs == null || userId == null || prefs.isEmpty()) {
             throw new IllegalStateException("Processor Context creation failed because of invalid values");
         }
         this.userId = userId;
-        this.prefs = prefs.copy();
-        this.request = request != null ? request.copy() : null;
+        this.prefs = readOnlyView(prefs);
+        this.request = request != null ? readOnlyView(request) : null;
         this.courseId = courseId;
         this.unitId = unitId;
         this.lessonId = lessonId;
+        this.sessionToken = sessionToken;
+        this.userUuid = UuidUtils.parse(userId);
+        this.courseUuid = UuidUtils.parse(courseId);
+        this.unitUuid = UuidUtils.parse(unitId);
+        this.lessonUuid = UuidUtils.parse(lessonId);
     }
 
     public String userId() {
@@ -32,7 +62,7 @@ public class ProcessorContext {
     }
 
     public JsonObject prefs() {
-        return this.prefs.copy();
+        return this.prefs;
     }
 
     public JsonObject request() {
@@ -51,4 +81,45 @@ public class ProcessorContext {
         return this.lessonId;
     }
 
+    public String sessionToken() {
+        return this.sessionToken;
+    }
+
+    public UUID userUuid() {
+        return this.userUuid;
+    }
+
+    public UUID courseUuid() {
+        return this.courseUuid;
+    }
+
+    public UUID unitUuid() {
+        return this.unitUuid;
+    }
+
+    public UUID lessonUuid() {
+        return this.lessonUuid;
+    }
+
+    private static JsonObject readOnlyView(JsonObject source) {
+        return new JsonObject(Collections.unmodifiableMap(normalized(source.getMap())));
+    }
+
+    // Source map is used as is unless it holds a plain map or list
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> normalized(Map<String, Object> source) {
+        Map<String, Object> result = null;
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            Object value = entry.getValue();
+            if (!(value instanceof Map) && !(value instanceof List)) {
+                continue;
+            }
+            if (result == null) {
+                result = new LinkedHashMap<>(source);
+            }
+            result.put(entry.getKey(),
+                value instanceof Map ? new JsonObject((Map<String, Object>) value) : new JsonArray((List) value));
+        }
+        return result != null ? result : source;
+    }
 }
@@ -0,0 +1,96 @@
+package org.gooru.nucleus.handlers.courses.processors;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Folds concurrent identical reads into one execution. First request for a
+ * key runs the read, and requests coming in for the same key while it is in
+ * flight wait for it and get the same response. Nothing is cached, once the
+ * execution is done next request for the key runs again.
+ * <p>
+ * Key is made of operation, ids and request, so only operations whose response
+ * does not depend on the requesting user are to be coalesced. Response is
+ * shared by all the waiters and is not to be modified. Waiter which does not
+ * get the response in time runs the read on its own. Folded requests are
+ * tracked and can be read with metrics().
+ */
+public final class ReadCoalescer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadCoalescer.class);
+    private static final long MAX_WAIT_MS = 5000;
+    private static final Map<String, LongAdder> EXECUTED = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> FOLDED = new ConcurrentHashMap<>();
+    private static final LongAdder WAIT_TIMEOUTS = new LongAdder();
+
+    private final Map<String, CompletableFuture<MessageResponse>> inFlight = new ConcurrentHashMap<>();
+
+    ReadCoalescer() {
+    }
+
+    public MessageResponse execute(String operation, String key, Supplier<MessageResponse> read) {
+        CompletableFuture<MessageResponse> own = new CompletableFuture<>();
+        CompletableFuture<MessageResponse> leader = inFlight.putIfAbsent(key, own);
+        if (leader != null) {
+            MessageResponse response = await(leader);
+            if (response != null) {
+                FOLDED.computeIfAbsent(operation, k -> new LongAdder()).increment();
+                return response;
+            }
+            return read.get();
+        }
+
+        EXECUTED.computeIfAbsent(operation, k -> new LongAdder()).increment();
+        try {
+            MessageResponse response = read.get();
+            own.complete(response);
+            return response;
+        } catch (Throwable t) {
+            own.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    public static JsonObject metrics() {
+        JsonObject executed = new JsonObject();
+        EXECUTED.forEach((operation, count) -> executed.put(operation, count.sum()));
+        JsonObject folded = new JsonObject();
+        FOLDED.forEach((operation, count) -> folded.put(operation, count.sum()));
+        return new JsonObject().put("executed", executed).put("folded", folded)
+            .put("wait_timeouts", WAIT_TIMEOUTS.sum());
+    }
+
+    /*
+     * Returns null when leader did not finish in time or failed, in which case
+     * waiter is on its own
+     */
+    private static MessageResponse await(CompletableFuture<MessageResponse> leader) {
+        try {
+            return leader.get(MAX_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            WAIT_TIMEOUTS.increment();
+            LOGGER.warn("coalesced read did not complete in {} ms, reading again", MAX_WAIT_MS);
+            return null;
+        } catch (ExecutionException e) {
+            LOGGER.warn("coalesced read failed, reading again", e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.gooru.nucleus.handlers.courses.processors.events;
 
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 /**
@@ -10,26 +11,32 @@ public class EventBuilderFactory {
     private static final String EVT_COURSE_CREATE = "event.course.create";
     private static final String EVT_COURSE_UPDATE = "event.course.update";
     private static final String EVT_COURSE_DELETE = "event.course.delete";
+    private static final String EVT_COURSE_COPY = "event.course.copy";
+    private static final String EVT_COURSE_COPY_FAILED = "event.course.copy.failed";
     private static final String EVT_COURSE_COLLABORATOR_UPDATE = "event.course.collaborator.update";
     private static final String EVT_COURSE_REORDER = "event.course.reorder";
     private static final String EVT_COURSE_CONTENT_REORDER = "event.course.content.reorder";
 
     private static final String EVT_UNIT_CREATE = "event.unit.create";
+    private static final String EVT_UNIT_CREATE_BULK = "event.unit.create.bulk";
     private static final String EVT_UNIT_UPDATE = "event.unit.update";
     private static final String EVT_UNIT_DELETE = "event.unit.delete";
     private static final String EVT_UNIT_CONTENT_REORDER = "event.unit.content.reorder";
     private static final String EVT_UNIT_MOVE = "event.unit.move";
 
     private static final String EVT_LESSON_CREATE = "event.lesson.create";
+    private static final String EVT_LESSON_CREATE_BULK = "event.lesson.create.bulk";
     private static final String EVT_LESSON_UPDATE = "event.lesson.update";
     private static final String EVT_LESSON_DELETE = "event.lesson.delete";
     private static final String EVT_LESSON_MOVE = "event.lesson.move";
     private static final String EVT_LESSON_CONTENT_REORDER = "event.lesson.content.reorder";
     private static final String EVT_COLLECTION_MOVE = "event.collection.move";
+    private static final String EVT_COLLECTION_MOVE_BULK = "event.collection.move.bulk";
 
     private static final String EVENT_NAME = "event.name";
     private static final String EVENT_BODY = "event.body";
     private static final String ID = "id";
+    private static final String IDS = "ids";
     private static final String SUBJECT_BUCKET = "subject_bucket";
     private static final String SOURCE = "source";
     private static final String TARGET = "target";    
@@ -42,6 +49,16 @@ public class EventBuilderFactory {
             new JsonObject().put(ID, courseId));
     }
 
+    public static EventBuilder getCopyCourseEventBuilder(String courseId, String sourceCourseId) {
+        return () -> new JsonObject().put(EVENT_NAME, EVT_COURSE_COPY).put(EVENT_BODY,
+            new JsonObject().put(ID, courseId).put(SOURCE, new JsonObject().put(COURSE_ID, sourceCourseId)));
+    }
+
+    public static EventBuilder getCopyCourseFailedEventBuilder(String courseId, String sourceCourseId) {
+        return () -> new JsonObject().put(EVENT_NAME, EVT_COURSE_COPY_FAILED).put(EVENT_BODY,
+            new JsonObject().put(ID, courseId).put(SOURCE, new JsonObject().put(COURSE_ID, sourceCourseId)));
+    }
+
     public static EventBuilder getCreateLessonEventBuilder(String lessonId) {
         return () -> new JsonObject().put(EVENT_NAME, EVT_LESSON_CREATE).put(EVENT_BODY,
             new JsonObject().put(ID, lessonId));
@@ -52,6 +69,16 @@ public class EventBuilderFactory {
             new JsonObject().put(ID, unitId));
     }
 
+    public static EventBuilder getCreateLessonsEventBuilder(String courseId, String unitId, JsonArray lessonIds) {
+        return () -> new JsonObject().put(EVENT_NAME, EVT_LESSON_CREATE_BULK).put(EVENT_BODY,
+            new JsonObject().put(COURSE_ID, courseId).put(UNIT_ID, unitId).put(IDS, lessonIds));
+    }
+
+    public static EventBuilder getCreateUnitsEventBuilder(String courseId, JsonArray unitIds) {
+        return () -> new JsonObject().put(EVENT_NAME, EVT_UNIT_CREATE_BULK).put(EVENT_BODY,
+            new JsonObject().put(COURSE_ID, courseId).put(IDS, unitIds));
+    }
+
     public static EventBuilder getDeleteCourseEventBuilder(String courseId) {
         return () -> new JsonObject().put(EVENT_NAME, EVT_COURSE_DELETE).put(EVENT_BODY,
             new JsonObject().put(ID, courseId));
@@ -75,6 +102,14 @@ public class EventBuilderFactory {
                 .put(SOURCE, source));
     }
 
+    public static EventBuilder getMoveCollectionsEventBuilder(String courseId, String unitId, String lessonId,
+        JsonObject source) {
+        return () -> new JsonObject().put(EVENT_NAME, EVT_COLLECTION_MOVE_BULK).put(EVENT_BODY,
+            new JsonObject()
+                .put(TARGET, new JsonObject().put(COURSE_ID, courseId).put(UNIT_ID, unitId).put(LESSON_ID, lessonId))
+                .put(SOURCE, source));
+    }
+
     public static EventBuilder getMoveLessonEventBuilder(String courseId, String unitId, JsonObject source) {
         return () -> new JsonObject().put(EVENT_NAME, EVT_LESSON_MOVE).put(EVENT_BODY, new JsonObject()
             .put(TARGET, new JsonObject().put(COURSE_ID, courseId).put(UNIT_ID, unitId)).put(SOURCE, source));
@@ -1,8 +0,0 @@
-package org.gooru.nucleus.handlers.courses.processors.repositories;
-
-import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
-
-public interface CourseCollaboratorRepo {
-
-    MessageResponse updateCollaborator();
-}
@@ -0,0 +1,118 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
+
+import java.util.UUID;
+
+import org.gooru.nucleus.handlers.courses.app.components.AsyncCourseCopier;
+import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
+import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
+import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.CourseCopier;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.javalite.activejdbc.Base;
+import org.javalite.activejdbc.LazyList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies a course with its whole hierarchy for the requesting user. Course can
+ * be copied by owner and collaborators, and by anyone once published.
+ * <p>
+ * Copy is done in the request transaction and answered with 201 and location
+ * of the new course. With "async" set in request, copy is queued instead and
+ * answered right away with 202 and the location the new course will have once
+ * copied, which client can poll.
+ */
+public class CopyCourseHandler implements DBHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CopyCourseHandler.class);
+    private static final String ASYNC = "async";
+    private final ProcessorContext context;
+    private boolean async;
+
+    public CopyCourseHandler(ProcessorContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> checkSanity() {
+        if (context.courseId() == null || context.courseId().isEmpty()) {
+            LOGGER.warn("invalid course id to copy");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid course id provided to copy"),
+                ExecutionStatus.FAILED);
+        }
+
+        if (context.userId() == null || context.userId().isEmpty()
+            || context.userId().equalsIgnoreCase(MessageConstants.MSG_USER_ANONYMOUS)) {
+            LOGGER.warn("Anonymous user attempting to copy course");
+            return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
+        }
+
+        Object asyncValue = context.request().getValue(ASYNC);
+        if (asyncValue != null && !(asyncValue instanceof Boolean)) {
+            LOGGER.warn("invalid async flag '{}' to copy course", asyncValue);
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid async flag provided to copy course"),
+                ExecutionStatus.FAILED);
+        }
+        async = Boolean.TRUE.equals(asyncValue);
+
+        LOGGER.debug("checkSanity() OK");
+        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> validateRequest() {
+        Object courseId = Base.firstCell(AJEntityCourse.SELECT_COURSE_TO_COPY, context.courseId(), context.userId(),
+            context.userId());
+        if (courseId == null) {
+            LazyList<AJEntityCourse> courses =
+                AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE_TO_VALIDATE, context.courseId(), false);
+            if (courses.isEmpty()) {
+                LOGGER.warn("course {} not found to copy, aborting", context.courseId());
+                return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse(), ExecutionStatus.FAILED);
+            }
+            LOGGER.warn("user is not owner or collaborator of unpublished course {} to copy", context.courseId());
+            return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
+        }
+
+        if (async && !AsyncCourseCopier.getInstance().isEnabled()) {
+            LOGGER.warn("asynchronous copy requested while disabled");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Asynchronous course copy is not available"),
+                ExecutionStatus.FAILED);
+        }
+
+        LOGGER.debug("validateRequest() OK");
+        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> executeRequest() {
+        String newCourseId = UUID.randomUUID().toString();
+        if (async) {
+            if (!AsyncCourseCopier.getInstance().submit(context.courseId(), newCourseId, context.userId())) {
+                return new ExecutionResult<>(
+                    MessageResponseFactory.createTooManyRequestsResponse("Too many course copies pending, retry later"),
+                    ExecutionStatus.FAILED);
+            }
+            LOGGER.info("copy of course {} as {} queued", context.courseId(), newCourseId);
+            return new ExecutionResult<>(MessageResponseFactory.createAcceptedResponse(newCourseId),
+                ExecutionStatus.SUCCESSFUL);
+        }
+
+        CourseCopier.copy(context.courseId(), newCourseId, context.userId());
+        return new ExecutionResult<>(MessageResponseFactory.createPostResponse(newCourseId,
+            EventBuilderFactory.getCopyCourseEventBuilder(newCourseId, context.courseId())),
+            ExecutionStatus.SUCCESSFUL);
+    }
+
+    @Override
+    public boolean handlerReadOnly() {
+        return false;
+    }
+}
@@ -3,13 +3,13 @@ package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.db
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityMetadataReference;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
-import org.javalite.activejdbc.Base;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,21 +80,10 @@ public class CreateCourseHandler implements DBHandler {
             course.setInteger(AJEntityCourse.LICENSE, license);
         }
 
-        // Get max sequence id of course for subject bucket
-        Object maxSequenceId;
-        int sequenceId = 1;
+        // Sequence id of course is within subject bucket of owner
         String subjectBucket = course.getString(AJEntityCourse.SUBJECT_BUCKET);
-        if (subjectBucket != null && !subjectBucket.isEmpty()) {
-            maxSequenceId =
-                Base.firstCell(AJEntityCourse.SELECT_MAX_SEQUENCE_FOR_SUBJECT_BUCKET, context.userId(), subjectBucket);
-        } else {
-            maxSequenceId = Base.firstCell(AJEntityCourse.SELECT_MAX_SEQUENCE_FOR_NON_SUBJECT_BUCKET, context.userId());
-        }
-
-        if (maxSequenceId != null) {
-            sequenceId = Integer.valueOf(maxSequenceId.toString()) + 1;
-        }
-        course.setInteger(AJEntityCourse.SEQUENCE_ID, sequenceId);
+        course.setInteger(AJEntityCourse.SEQUENCE_ID,
+            SequenceIdAllocator.nextCourseSequenceId(context.userId(), subjectBucket));
 
         if (course.hasErrors()) {
             LOGGER.warn("errors in course creation");
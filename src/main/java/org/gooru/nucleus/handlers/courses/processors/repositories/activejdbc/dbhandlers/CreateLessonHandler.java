@@ -1,11 +1,11 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
-import java.sql.Timestamp;
-import java.util.Map;
-
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.ChildCounters;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityLesson;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
@@ -13,7 +13,6 @@ import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
-import org.javalite.activejdbc.Base;
 import org.javalite.activejdbc.LazyList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -109,13 +108,8 @@ public class CreateLessonHandler implements DBHandler {
         newLesson.setModifierId(context.userId());
         newLesson.set(AJEntityLesson.IS_DELETED, false);
 
-        Object maxSequenceId =
-            Base.firstCell(AJEntityLesson.SELECT_LESSON_MAX_SEQUENCEID, context.courseId(), context.unitId());
-        int sequenceId = 1;
-        if (maxSequenceId != null) {
-            sequenceId = Integer.valueOf(maxSequenceId.toString()) + 1;
-        }
-        newLesson.set(AJEntityLesson.SEQUENCE_ID, sequenceId);
+        newLesson.set(AJEntityLesson.SEQUENCE_ID,
+            SequenceIdAllocator.nextLessonSequenceId(context.courseId(), context.unitId()));
 
         if (newLesson.hasErrors()) {
             LOGGER.warn("error in creating new lesson");
@@ -128,20 +122,8 @@ public class CreateLessonHandler implements DBHandler {
                 LOGGER.info("lesson {} created successfully for unit {}", newLesson.getId().toString(),
                     context.unitId());
 
-                AJEntityCourse courseToUpdate = new AJEntityCourse();
-                courseToUpdate.setCourseId(context.courseId());
-                courseToUpdate.setTimestamp(AJEntityCourse.UPDATED_AT, new Timestamp(System.currentTimeMillis()));
-                boolean result = courseToUpdate.save();
-                if (!result) {
-                    LOGGER.error("Course with id '{}' failed to save modified time stamp", context.courseId());
-                    if (courseToUpdate.hasErrors()) {
-                        Map<String, String> map = courseToUpdate.errors();
-                        JsonObject errors = new JsonObject();
-                        map.forEach(errors::put);
-                        return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(errors),
-                            ExecutionStatus.FAILED);
-                    }
-                }
+                ChildCounters.adjustLessonCount(context.unitId(), 1);
+                CourseTouchCoalescer.getInstance().touch(context.courseId());
 
                 return new ExecutionResult<>(
                     MessageResponseFactory.createPostResponse(newLesson.getId().toString(),
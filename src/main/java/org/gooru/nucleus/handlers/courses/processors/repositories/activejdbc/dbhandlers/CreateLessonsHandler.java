@@ -0,0 +1,180 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
+import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
+import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
+import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.ChildCounters;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.MultiRowInsert;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityLesson;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.javalite.activejdbc.LazyList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Creates multiple lessons in a unit in one go, the same way as
+ * CreateUnitsHandler does for units. Lesson count of the unit is adjusted once
+ * for all of them.
+ */
+public class CreateLessonsHandler implements DBHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CreateLessonsHandler.class);
+    private static final String PAYLOAD_KEY = "lessons";
+    private static final int MAX_LESSONS = 100;
+    private final ProcessorContext context;
+    private JsonArray lessons;
+    private String courseOwner;
+
+    public CreateLessonsHandler(ProcessorContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> checkSanity() {
+        if (context.courseId() == null || context.courseId().isEmpty()) {
+            LOGGER.warn("invalid course id to create lessons");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid course id provided to create lessons"),
+                ExecutionStatus.FAILED);
+        }
+
+        if (context.unitId() == null || context.unitId().isEmpty()) {
+            LOGGER.warn("invalid unit id to create lessons");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid unit id provided to create lessons"),
+                ExecutionStatus.FAILED);
+        }
+
+        if (context.userId() == null || context.userId().isEmpty()
+            || context.userId().equalsIgnoreCase(MessageConstants.MSG_USER_ANONYMOUS)) {
+            LOGGER.warn("Anonymous user attempting to create lessons");
+            return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
+        }
+
+        Object value = context.request().getValue(PAYLOAD_KEY);
+        if (!(value instanceof JsonArray) || ((JsonArray) value).isEmpty()) {
+            LOGGER.warn("invalid request received to create lessons");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid data provided to create lessons"),
+                ExecutionStatus.FAILED);
+        }
+        lessons = (JsonArray) value;
+
+        if (lessons.size() > MAX_LESSONS) {
+            LOGGER.warn("too many lessons '{}' to create", lessons.size());
+            return new ExecutionResult<>(MessageResponseFactory
+                .createInvalidRequestResponse("At most " + MAX_LESSONS + " lessons can be created"),
+                ExecutionStatus.FAILED);
+        }
+
+        JsonObject validateErrors = validateLessons();
+        if (!validateErrors.isEmpty()) {
+            return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(validateErrors),
+                ExecutionResult.ExecutionStatus.FAILED);
+        }
+
+        LOGGER.debug("checkSanity() OK");
+        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> validateRequest() {
+        LazyList<AJEntityCourse> ajEntityCourse = AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE_TO_AUTHORIZE,
+            context.courseId(), false, context.userId(), context.userId());
+        if (ajEntityCourse.isEmpty()) {
+            LOGGER.warn("user is not owner or collaborator of course to create lessons. aborting");
+            return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
+        }
+        courseOwner = ajEntityCourse.get(0).getString(AJEntityCourse.OWNER_ID);
+
+        LazyList<AJEntityUnit> ajEntityUnit =
+            AJEntityUnit.findBySQL(AJEntityUnit.SELECT_UNIT_TO_VALIDATE, context.unitId(), context.courseId(), false);
+        if (ajEntityUnit.isEmpty()) {
+            LOGGER.warn("Unit {} not found, aborting", context.unitId());
+            return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse(), ExecutionStatus.FAILED);
+        }
+
+        LOGGER.debug("validateRequest() OK");
+        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> executeRequest() {
+        int firstSequenceId =
+            SequenceIdAllocator.allocateLessonSequenceIds(context.courseId(), context.unitId(), lessons.size());
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        MultiRowInsert insert = new MultiRowInsert(AJEntityLesson.TABLE_LESSON, AJEntityLesson.BULK_INSERT_COLUMNS,
+            AJEntityLesson.UUID_FIELDS, AJEntityLesson.JSON_FIELDS);
+        for (int i = 0; i < lessons.size(); i++) {
+            Map<String, Object> row = new HashMap<>(lessons.getJsonObject(i).getMap());
+            row.put(AJEntityLesson.COURSE_ID, context.courseId());
+            row.put(AJEntityLesson.UNIT_ID, context.unitId());
+            row.put(AJEntityLesson.OWNER_ID, courseOwner);
+            row.put(AJEntityLesson.CREATOR_ID, context.userId());
+            row.put(AJEntityLesson.MODIFIER_ID, context.userId());
+            row.put(AJEntityLesson.IS_DELETED, false);
+            row.put(AJEntityLesson.SEQUENCE_ID, firstSequenceId + i);
+            row.put(AJEntityLesson.CREATED_AT, now);
+            row.put(AJEntityLesson.UPDATED_AT, now);
+            insert.addRow(row);
+        }
+
+        JsonArray lessonIds =
+            new JsonArray(insert.executeForIds(AJEntityLesson.LESSON_ID, AJEntityLesson.SEQUENCE_ID));
+        LOGGER.info("{} lessons created for unit {}", lessonIds.size(), context.unitId());
+
+        ChildCounters.adjustLessonCount(context.unitId(), lessonIds.size());
+        CourseTouchCoalescer.getInstance().touch(context.courseId());
+
+        return new ExecutionResult<>(
+            MessageResponseFactory.createPostResponse(new JsonObject().put(MessageConstants.IDS, lessonIds),
+                EventBuilderFactory.getCreateLessonsEventBuilder(context.courseId(), context.unitId(), lessonIds)),
+            ExecutionStatus.SUCCESSFUL);
+    }
+
+    @Override
+    public boolean handlerReadOnly() {
+        return false;
+    }
+
+    /*
+     * Errors are reported against the position of lesson in request
+     */
+    private JsonObject validateLessons() {
+        JsonObject errors = new JsonObject();
+        for (int i = 0; i < lessons.size(); i++) {
+            Object lesson = lessons.getValue(i);
+            if (!(lesson instanceof JsonObject) || ((JsonObject) lesson).isEmpty()) {
+                errors.put(String.valueOf(i), "Invalid lesson data");
+                continue;
+            }
+            JsonObject input = (JsonObject) lesson;
+            JsonObject output = new JsonObject();
+            input.fieldNames().stream().filter(key -> !AJEntityLesson.INSERTABLE_FIELDS.contains(key))
+                .forEach(key -> output.put(key, "Field not allowed"));
+            AJEntityLesson.NOTNULL_FIELDS.stream()
+                .filter(notNullField -> (input.getValue(notNullField) == null
+                    || input.getValue(notNullField).toString().isEmpty()))
+                .forEach(notNullField -> output.put(notNullField, "Field should not be empty or null"));
+            if (!output.isEmpty()) {
+                errors.put(String.valueOf(i), output);
+            }
+        }
+        return errors;
+    }
+}
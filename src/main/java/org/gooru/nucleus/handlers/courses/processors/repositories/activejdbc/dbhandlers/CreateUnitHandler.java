@@ -1,18 +1,16 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
-import java.sql.Timestamp;
-import java.util.Map;
-
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
-import org.javalite.activejdbc.Base;
 import org.javalite.activejdbc.LazyList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -94,14 +92,7 @@ public class CreateUnitHandler implements DBHandler {
         newUnit.setModifierId(context.userId());
         newUnit.set(AJEntityUnit.IS_DELETED, false);
 
-        // Get max sequence id for course
-        Object maxSequenceId = Base.firstCell(AJEntityUnit.SELECT_UNIT_MAX_SEQUENCEID, context.courseId());
-        int sequenceId = 1;
-        if (maxSequenceId != null) {
-            sequenceId = Integer.valueOf(maxSequenceId.toString()) + 1;
-
-        }
-        newUnit.set(AJEntityUnit.SEQUENCE_ID, sequenceId);
+        newUnit.set(AJEntityUnit.SEQUENCE_ID, SequenceIdAllocator.nextUnitSequenceId(context.courseId()));
 
         if (newUnit.hasErrors()) {
             LOGGER.warn("error in creating new unit");
@@ -114,20 +105,7 @@ public class CreateUnitHandler implements DBHandler {
                 LOGGER.info("unit {} created successfully for course {}", newUnit.getId().toString(),
                     context.courseId());
 
-                AJEntityCourse courseToUpdate = new AJEntityCourse();
-                courseToUpdate.setCourseId(context.courseId());
-                courseToUpdate.setTimestamp(AJEntityCourse.UPDATED_AT, new Timestamp(System.currentTimeMillis()));
-                boolean result = courseToUpdate.save();
-                if (!result) {
-                    LOGGER.error("Course with id '{}' failed to save modified time stamp", context.courseId());
-                    if (courseToUpdate.hasErrors()) {
-                        Map<String, String> map = courseToUpdate.errors();
-                        JsonObject errors = new JsonObject();
-                        map.forEach(errors::put);
-                        return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(errors),
-                            ExecutionStatus.FAILED);
-                    }
-                }
+                CourseTouchCoalescer.getInstance().touch(context.courseId());
 
                 return new ExecutionResult<>(
                     MessageResponseFactory.createPostResponse(newUnit.getId().toString(),
@@ -0,0 +1,161 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
+import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
+import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
+import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.MultiRowInsert;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.javalite.activejdbc.LazyList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Creates multiple units in a course in one go. Request is authorized once,
+ * units get contiguous sequence ids after the existing ones, in the order in
+ * which they are listed, and are inserted with a single statement. Response
+ * carries ids of new units in the same order.
+ */
+public class CreateUnitsHandler implements DBHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CreateUnitsHandler.class);
+    private static final String PAYLOAD_KEY = "units";
+    private static final int MAX_UNITS = 100;
+    private final ProcessorContext context;
+    private JsonArray units;
+    private String courseOwner;
+
+    public CreateUnitsHandler(ProcessorContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> checkSanity() {
+        if (context.courseId() == null || context.courseId().isEmpty()) {
+            LOGGER.warn("invalid course id to create units");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid course id provided to create units"),
+                ExecutionStatus.FAILED);
+        }
+
+        if (context.userId() == null || context.userId().isEmpty()
+            || context.userId().equalsIgnoreCase(MessageConstants.MSG_USER_ANONYMOUS)) {
+            LOGGER.warn("Anonymous user attempting to create units");
+            return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
+        }
+
+        Object value = context.request().getValue(PAYLOAD_KEY);
+        if (!(value instanceof JsonArray) || ((JsonArray) value).isEmpty()) {
+            LOGGER.warn("invalid request received to create units");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid data provided to create units"),
+                ExecutionStatus.FAILED);
+        }
+        units = (JsonArray) value;
+
+        if (units.size() > MAX_UNITS) {
+            LOGGER.warn("too many units '{}' to create", units.size());
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("At most " + MAX_UNITS + " units can be created"),
+                ExecutionStatus.FAILED);
+        }
+
+        JsonObject validateErrors = validateUnits();
+        if (!validateErrors.isEmpty()) {
+            return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(validateErrors),
+                ExecutionResult.ExecutionStatus.FAILED);
+        }
+
+        LOGGER.debug("checkSanity() OK");
+        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> validateRequest() {
+        LazyList<AJEntityCourse> ajEntityCourse = AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE_TO_AUTHORIZE,
+            context.courseId(), false, context.userId(), context.userId());
+        if (ajEntityCourse.isEmpty()) {
+            LOGGER.warn("user is not owner or collaborator of course to create units. aborting");
+            return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
+        }
+        courseOwner = ajEntityCourse.get(0).getString(AJEntityCourse.OWNER_ID);
+
+        LOGGER.debug("validateRequest() OK");
+        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> executeRequest() {
+        int firstSequenceId = SequenceIdAllocator.allocateUnitSequenceIds(context.courseId(), units.size());
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        MultiRowInsert insert = new MultiRowInsert(AJEntityUnit.TABLE_UNIT, AJEntityUnit.BULK_INSERT_COLUMNS,
+            AJEntityUnit.UUID_FIELDS, AJEntityUnit.JSON_FIELDS);
+        for (int i = 0; i < units.size(); i++) {
+            Map<String, Object> row = new HashMap<>(units.getJsonObject(i).getMap());
+            row.put(AJEntityUnit.COURSE_ID, context.courseId());
+            row.put(AJEntityUnit.OWNER_ID, courseOwner);
+            row.put(AJEntityUnit.CREATOR_ID, context.userId());
+            row.put(AJEntityUnit.MODIFIER_ID, context.userId());
+            row.put(AJEntityUnit.IS_DELETED, false);
+            row.put(AJEntityUnit.SEQUENCE_ID, firstSequenceId + i);
+            row.put(AJEntityUnit.CREATED_AT, now);
+            row.put(AJEntityUnit.UPDATED_AT, now);
+            insert.addRow(row);
+        }
+
+        JsonArray unitIds = new JsonArray(insert.executeForIds(AJEntityUnit.UNIT_ID, AJEntityUnit.SEQUENCE_ID));
+        LOGGER.info("{} units created for course {}", unitIds.size(), context.courseId());
+
+        CourseTouchCoalescer.getInstance().touch(context.courseId());
+
+        return new ExecutionResult<>(
+            MessageResponseFactory.createPostResponse(new JsonObject().put(MessageConstants.IDS, unitIds),
+                EventBuilderFactory.getCreateUnitsEventBuilder(context.courseId(), unitIds)),
+            ExecutionStatus.SUCCESSFUL);
+    }
+
+    @Override
+    public boolean handlerReadOnly() {
+        return false;
+    }
+
+    /*
+     * Errors are reported against the position of unit in request
+     */
+    private JsonObject validateUnits() {
+        JsonObject errors = new JsonObject();
+        for (int i = 0; i < units.size(); i++) {
+            Object unit = units.getValue(i);
+            if (!(unit instanceof JsonObject) || ((JsonObject) unit).isEmpty()) {
+                errors.put(String.valueOf(i), "Invalid unit data");
+                continue;
+            }
+            JsonObject input = (JsonObject) unit;
+            JsonObject output = new JsonObject();
+            input.fieldNames().stream().filter(key -> !AJEntityUnit.INSERTABLE_FIELDS.contains(key))
+                .forEach(key -> output.put(key, "Field not allowed"));
+            AJEntityUnit.NOTNULL_FIELDS.stream()
+                .filter(notNullField -> (input.getValue(notNullField) == null
+                    || input.getValue(notNullField).toString().isEmpty()))
+                .forEach(notNullField -> output.put(notNullField, "Field should not be empty or null"));
+            if (!output.isEmpty()) {
+                errors.put(String.valueOf(i), output);
+            }
+        }
+        return errors;
+    }
+}
@@ -1,5 +1,8 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 
@@ -7,11 +10,19 @@ import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
  * Created by ashish on 11/1/16.
  */
 public interface DBHandler {
-        ExecutionResult<MessageResponse> checkSanity();
+    ExecutionResult<MessageResponse> checkSanity();
 
     ExecutionResult<MessageResponse> validateRequest();
 
     ExecutionResult<MessageResponse> executeRequest();
 
     boolean handlerReadOnly();
+
+    /*
+     * Courses whose structure is going to be changed by the handler. They are
+     * locked in a canonical order before validation, see CourseLocks
+     */
+    default Collection<String> coursesToLock() {
+        return Collections.emptyList();
+    }
 }
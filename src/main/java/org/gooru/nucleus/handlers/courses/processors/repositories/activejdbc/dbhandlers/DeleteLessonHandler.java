@@ -3,12 +3,11 @@ package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.db
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
-import java.sql.Timestamp;
-import java.util.Map;
-
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.ChildCounters;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.*;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
@@ -120,20 +119,8 @@ public class DeleteLessonHandler implements DBHandler {
             AJEntityContent.update("is_deleted = ?, modifier_id = ?::uuid", "lesson_id = ?::uuid", true,
                 context.userId(), context.lessonId());
 
-            AJEntityCourse courseToUpdate = new AJEntityCourse();
-            courseToUpdate.setCourseId(context.courseId());
-            courseToUpdate.setTimestamp(AJEntityCourse.UPDATED_AT, new Timestamp(System.currentTimeMillis()));
-            boolean result = courseToUpdate.save();
-            if (!result) {
-                LOGGER.error("Course with id '{}' failed to save modified time stamp", context.courseId());
-                if (courseToUpdate.hasErrors()) {
-                    Map<String, String> map = courseToUpdate.errors();
-                    JsonObject errors = new JsonObject();
-                    map.forEach(errors::put);
-                    return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(errors),
-                        ExecutionStatus.FAILED);
-                }
-            }
+            ChildCounters.adjustLessonCount(context.unitId(), -1);
+            CourseTouchCoalescer.getInstance().touch(context.courseId());
 
             return new ExecutionResult<>(
                 MessageResponseFactory.createNoContentResponse(
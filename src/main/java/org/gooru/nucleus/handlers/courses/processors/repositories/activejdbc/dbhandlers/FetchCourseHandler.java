@@ -1,22 +1,14 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.FieldProjection;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
-import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityLesson;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.formatter.JsonFormatterBuilder;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
-import org.javalite.activejdbc.Base;
 import org.javalite.activejdbc.LazyList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +20,7 @@ public class FetchCourseHandler implements DBHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FetchCourseHandler.class);
     private final ProcessorContext context;
+    private FieldProjection projection;
 
     public FetchCourseHandler(ProcessorContext context) {
         this.context = context;
@@ -47,6 +40,15 @@ public class FetchCourseHandler implements DBHandler {
             return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
         }
 
+        projection = FieldProjection.of(context.request(), AJEntityCourse.ID, AJEntityCourse.ALL_FIELDS,
+            AJEntityUnit.UNIT_SUMMARY);
+        if (projection == null) {
+            LOGGER.warn("invalid fields to fetch course");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid fields provided to fetch course"),
+                ExecutionStatus.FAILED);
+        }
+
         LOGGER.debug("checkSanity() OK");
         return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
     }
@@ -59,37 +61,24 @@ public class FetchCourseHandler implements DBHandler {
 
     @Override
     public ExecutionResult<MessageResponse> executeRequest() {
-        LazyList<AJEntityCourse> ajEntityCourse =
-            AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE, context.courseId(), false);
+        String query = projection.query(AJEntityCourse.SELECT_COURSE, AJEntityCourse.SELECT_COURSE_FIELDS);
+        LazyList<AJEntityCourse> ajEntityCourse = AJEntityCourse.findBySQL(query, context.courseUuid(), false);
         JsonObject body;
         if (!ajEntityCourse.isEmpty()) {
             LOGGER.info("found course for id {} : " + context.courseId());
-            body = new JsonObject(new JsonFormatterBuilder().buildSimpleJsonFormatter(false, AJEntityCourse.ALL_FIELDS)
+            body = new JsonObject(new JsonFormatterBuilder().buildSimpleJsonFormatter(false, projection.fields())
                 .toJson(ajEntityCourse.get(0)));
+            if (!projection.includes(AJEntityUnit.UNIT_SUMMARY)) {
+                return new ExecutionResult<>(MessageResponseFactory.createGetResponse(body),
+                    ExecutionStatus.SUCCESSFUL);
+            }
 
             LazyList<AJEntityUnit> units =
-                AJEntityUnit.findBySQL(AJEntityUnit.SELECT_UNIT_SUMMARY, context.courseId(), false);
+                AJEntityUnit.findBySQL(AJEntityUnit.SELECT_UNIT_SUMMARY, context.courseUuid(), false);
             LOGGER.debug("number of units found {}", units.size());
             if (units.size() > 0) {
-                List<String> unitIds = new ArrayList<>();
-                units.stream().forEach(unit -> unitIds.add(unit.getString(AJEntityUnit.UNIT_ID)));
-
-                List<Map> lessonCounts = Base.findAll(AJEntityLesson.SELECT_LESSON_COUNT_MULTIPLE,
-                    toPostgresArrayString(unitIds), context.courseId());
-                Map<String, Integer> lessonCountByUnit = new HashMap<>();
-                lessonCounts.stream().forEach(map -> lessonCountByUnit.put(map.get(AJEntityLesson.UNIT_ID).toString(),
-                    Integer.valueOf(map.get(AJEntityLesson.LESSON_COUNT).toString())));
-                LOGGER.debug("lesson counts: {}", lessonCountByUnit.size());
-                JsonArray unitSummaryArray = new JsonArray();
-                units.stream().forEach(unit -> {
-                    JsonObject unitSummary = new JsonObject(new JsonFormatterBuilder()
-                        .buildSimpleJsonFormatter(false, AJEntityUnit.UNIT_SUMMARY_FIELDS).toJson(unit));
-                    Integer lessonCount = lessonCountByUnit.get(unit.get(AJEntityLesson.UNIT_ID).toString());
-                    unitSummary.put(AJEntityLesson.LESSON_COUNT, lessonCount != null ? lessonCount : 0);
-                    unitSummaryArray.add(unitSummary);
-                });
-
-                body.put(AJEntityUnit.UNIT_SUMMARY, unitSummaryArray);
+                body.put(AJEntityUnit.UNIT_SUMMARY, new JsonArray(new JsonFormatterBuilder()
+                    .buildSimpleJsonFormatter(false, AJEntityUnit.UNIT_SUMMARY_FIELDS).toJson(units)));
             }
             return new ExecutionResult<>(MessageResponseFactory.createGetResponse(body), ExecutionStatus.SUCCESSFUL);
         } else {
@@ -103,24 +92,4 @@ public class FetchCourseHandler implements DBHandler {
         return true;
     }
 
-    private String toPostgresArrayString(Collection<String> input) {
-        int approxSize = ((input.size() + 1) * 36); // Length of UUID is around
-                                                    // 36
-                                                    // chars
-        Iterator<String> it = input.iterator();
-        if (!it.hasNext()) {
-            return "{}";
-        }
-
-        StringBuilder sb = new StringBuilder(approxSize);
-        sb.append('{');
-        for (;;) {
-            String s = it.next();
-            sb.append('"').append(s).append('"');
-            if (!it.hasNext()) {
-                return sb.append('}').toString();
-            }
-            sb.append(',');
-        }
-    }
 }
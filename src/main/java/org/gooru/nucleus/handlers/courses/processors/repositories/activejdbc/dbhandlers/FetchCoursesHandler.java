@@ -0,0 +1,155 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
+import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.formatter.JsonFormatter;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.formatter.JsonFormatterBuilder;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.gooru.nucleus.handlers.courses.processors.utils.UuidUtils;
+import org.javalite.activejdbc.Base;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Fetches summaries of multiple courses in one go. Response carries an entry
+ * for every requested id, which is either the course summary along with unit
+ * count or a not found marker.
+ */
+public class FetchCoursesHandler implements DBHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FetchCoursesHandler.class);
+    private static final int MAX_IDS = 100;
+    private final ProcessorContext context;
+    private Set<String> courseIds;
+
+    public FetchCoursesHandler(ProcessorContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> checkSanity() {
+        if (context.userId() == null || context.userId().isEmpty()) {
+            LOGGER.warn("Invalid user id to fetch courses");
+            return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
+        }
+
+        courseIds = readCourseIds();
+        if (courseIds == null || courseIds.isEmpty()) {
+            LOGGER.warn("invalid course ids to fetch courses");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid course ids provided to fetch courses"),
+                ExecutionStatus.FAILED);
+        }
+
+        if (courseIds.size() > MAX_IDS) {
+            LOGGER.warn("too many course ids '{}' to fetch courses", courseIds.size());
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("At most " + MAX_IDS + " courses can be fetched"),
+                ExecutionStatus.FAILED);
+        }
+
+        LOGGER.debug("checkSanity() OK");
+        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> validateRequest() {
+        LOGGER.debug("validateRequest() OK");
+        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> executeRequest() {
+        String courseIdArray = toPostgresArrayString(courseIds);
+        JsonFormatter formatter = new JsonFormatterBuilder().buildSimpleJsonFormatter(false, AJEntityCourse.ALL_FIELDS);
+
+        Map<String, JsonObject> coursesById = new HashMap<>();
+        Base.find(AJEntityCourse.SELECT_COURSES_BY_IDS, courseIdArray).with(course -> {
+            coursesById.put(course.get(AJEntityCourse.ID).toString(), new JsonObject(formatter.toJson(course)));
+            return true;
+        });
+        LOGGER.debug("found {} courses out of {} requested", coursesById.size(), courseIds.size());
+
+        if (!coursesById.isEmpty()) {
+            Base.find(AJEntityUnit.SELECT_UNIT_COUNT_MULTIPLE, courseIdArray).with(map -> {
+                JsonObject course = coursesById.get(map.get(AJEntityUnit.COURSE_ID).toString());
+                if (course != null) {
+                    course.put(AJEntityUnit.UNIT_COUNT, Integer.valueOf(map.get(AJEntityUnit.UNIT_COUNT).toString()));
+                }
+                return true;
+            });
+        }
+
+        JsonObject result = new JsonObject();
+        courseIds.forEach(courseId -> {
+            JsonObject course = coursesById.get(courseId);
+            if (course != null) {
+                if (!course.containsKey(AJEntityUnit.UNIT_COUNT)) {
+                    course.put(AJEntityUnit.UNIT_COUNT, 0);
+                }
+                result.put(courseId, course);
+            } else {
+                result.put(courseId, new JsonObject().put(MessageConstants.RESP_JSON_KEY_NOT_FOUND, true));
+            }
+        });
+
+        return new ExecutionResult<>(
+            MessageResponseFactory.createGetResponse(new JsonObject().put(MessageConstants.RESP_JSON_KEY_COURSES, result)),
+            ExecutionStatus.SUCCESSFUL);
+    }
+
+    @Override
+    public boolean handlerReadOnly() {
+        return true;
+    }
+
+    /*
+     * Ids may come in as JSON array in body or as repeated/comma separated
+     * request parameter. Ids are normalized to lower case uuid form so that
+     * they match with what DB hands back. Any invalid id fails the whole
+     * request.
+     */
+    private Set<String> readCourseIds() {
+        Object value = context.request().getValue(MessageConstants.IDS);
+        if (!(value instanceof JsonArray)) {
+            return null;
+        }
+        Set<String> ids = new LinkedHashSet<>();
+        for (Object element : (JsonArray) value) {
+            if (!(element instanceof String)) {
+                return null;
+            }
+            for (String id : ((String) element).split(",")) {
+                String trimmed = id.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                UUID courseId = UuidUtils.parse(trimmed);
+                if (courseId == null) {
+                    LOGGER.warn("invalid course id '{}' in batch", trimmed);
+                    return null;
+                }
+                ids.add(courseId.toString());
+            }
+        }
+        return ids;
+    }
+
+    private static String toPostgresArrayString(Set<String> input) {
+        return "{" + String.join(",", input) + "}";
+    }
+}
@@ -1,12 +1,13 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.FieldProjection;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCollection;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityContent;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
@@ -28,6 +29,7 @@ import io.vertx.core.json.JsonObject;
 public class FetchLessonHandler implements DBHandler {
 
     private final ProcessorContext context;
+    private FieldProjection projection;
     private static final Logger LOGGER = LoggerFactory.getLogger(FetchLessonHandler.class);
 
     public FetchLessonHandler(ProcessorContext context) {
@@ -62,6 +64,15 @@ public class FetchLessonHandler implements DBHandler {
             return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
         }
 
+        projection = FieldProjection.of(context.request(), AJEntityLesson.LESSON_ID, AJEntityLesson.ALL_FIELDS,
+            AJEntityCollection.COLLECTION_SUMMARY);
+        if (projection == null) {
+            LOGGER.warn("invalid fields to fetch lesson");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid fields provided to fetch lesson"),
+                ExecutionStatus.FAILED);
+        }
+
         LOGGER.debug("checkSanity() OK");
         return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
     }
@@ -70,21 +81,21 @@ public class FetchLessonHandler implements DBHandler {
     public ExecutionResult<MessageResponse> validateRequest() {
 
         LazyList<AJEntityCourse> ajEntityCourse =
-            AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE_TO_VALIDATE, context.courseId(), false);
+            AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE_TO_VALIDATE, context.courseUuid(), false);
         if (ajEntityCourse.isEmpty()) {
             LOGGER.warn("course {} not found to fetch lesson, aborting", context.courseId());
             return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse(), ExecutionStatus.FAILED);
         }
 
         LazyList<AJEntityUnit> ajEntityUnit =
-            AJEntityUnit.findBySQL(AJEntityUnit.SELECT_UNIT_TO_VALIDATE, context.unitId(), context.courseId(), false);
+            AJEntityUnit.findBySQL(AJEntityUnit.SELECT_UNIT_TO_VALIDATE, context.unitUuid(), context.courseUuid(), false);
         if (ajEntityUnit.isEmpty()) {
             LOGGER.warn("Unit {} not found, aborting", context.unitId());
             return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse(), ExecutionStatus.FAILED);
         }
 
         LazyList<AJEntityLesson> ajEntityLesson = AJEntityLesson.findBySQL(AJEntityLesson.SELECT_LESSON_TO_VALIDATE,
-            context.lessonId(), context.unitId(), context.courseId(), false);
+            context.lessonUuid(), context.unitUuid(), context.courseUuid(), false);
         if (ajEntityLesson.isEmpty()) {
             LOGGER.warn("Lesson {} not found, aborting", context.lessonId());
             return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse(), ExecutionStatus.FAILED);
@@ -97,54 +108,43 @@ public class FetchLessonHandler implements DBHandler {
     @Override
     public ExecutionResult<MessageResponse> executeRequest() {
         JsonObject resultBody;
-        LazyList<AJEntityLesson> ajEntityLesson = AJEntityLesson.findBySQL(AJEntityLesson.SELECT_LESSON,
-            context.lessonId(), context.unitId(), context.courseId(), false);
+        String query = projection.query(AJEntityLesson.SELECT_LESSON, AJEntityLesson.SELECT_LESSON_FIELDS);
+        LazyList<AJEntityLesson> ajEntityLesson = AJEntityLesson.findBySQL(query, context.lessonUuid(),
+            context.unitUuid(), context.courseUuid(), false);
         if (!ajEntityLesson.isEmpty()) {
             LOGGER.info("lesson {} found, packing into JSON", context.unitId());
             resultBody = new JsonObject(new JsonFormatterBuilder()
-                .buildSimpleJsonFormatter(false, AJEntityLesson.ALL_FIELDS).toJson(ajEntityLesson.get(0)));
+                .buildSimpleJsonFormatter(false, projection.fields()).toJson(ajEntityLesson.get(0)));
+            if (!projection.includes(AJEntityCollection.COLLECTION_SUMMARY)) {
+                return new ExecutionResult<>(MessageResponseFactory.createGetResponse(resultBody),
+                    ExecutionStatus.SUCCESSFUL);
+            }
 
             LazyList<AJEntityCollection> collectionSummary =
-                AJEntityCollection.findBySQL(AJEntityCollection.SELECT_COLLECTION_SUMMARY, context.lessonId(),
-                    context.unitId(), context.courseId(), false);
-
+                AJEntityCollection.findBySQL(AJEntityCollection.SELECT_COLLECTION_SUMMARY, context.lessonUuid(),
+                    context.unitUuid(), context.courseUuid(), false);
             LOGGER.debug("number of collections found for lesson {} : {}", context.lessonId(),
                 collectionSummary.size());
             if (collectionSummary.size() > 0) {
                 List<String> collectionIds = new ArrayList<>();
-                collectionSummary.stream()
-                    .forEach(collection -> collectionIds.add(collection.getString(AJEntityCollection.ID)));
-
-                List<Map> collectionContentCount = Base.findAll(AJEntityContent.SELECT_CONTENT_COUNT_BY_COLLECTION,
-                    listToPostgresArrayString(collectionIds), context.courseId(), context.unitId(), context.lessonId());
-                Map<String, Integer> resourceCountMap = new HashMap<>();
-                collectionContentCount.stream()
-                    .filter(map -> map.get(AJEntityContent.CONTENT_FORMAT) != null
-                        && map.get(AJEntityContent.CONTENT_FORMAT).toString()
-                            .equalsIgnoreCase(AJEntityContent.CONTENT_FORMAT_RESOURCE))
-                    .forEach(map -> resourceCountMap.put(map.get(AJEntityContent.COLLECTION_ID).toString(),
-                        Integer.valueOf(map.get(AJEntityContent.CONTENT_COUNT).toString())));
-
-                Map<String, Integer> questionCountMap = new HashMap<>();
-                collectionContentCount.stream()
-                    .filter(map -> map.get(AJEntityContent.CONTENT_FORMAT) != null
-                        && map.get(AJEntityContent.CONTENT_FORMAT).toString()
-                            .equalsIgnoreCase(AJEntityContent.CONTENT_FORMAT_QUESTION))
-                    .forEach(map -> questionCountMap.put(map.get(AJEntityContent.COLLECTION_ID).toString(),
-                        Integer.valueOf(map.get(AJEntityContent.CONTENT_COUNT).toString())));
+                collectionSummary.forEach(collection -> collectionIds.add(collection.getString(AJEntityCollection.ID)));
+                Map<String, Map<String, Object>> countsByCollection = new HashMap<>();
+                Base.find(AJEntityContent.SELECT_CONTENT_COUNTS_BY_COLLECTION, toPostgresArrayString(collectionIds),
+                    context.courseId(), context.unitId(), context.lessonId()).with(row -> {
+                        countsByCollection.put(String.valueOf(row.get(AJEntityContent.COLLECTION_ID)), row);
+                        return true;
+                    });
 
                 JsonArray collectionSummaryArray = new JsonArray();
-                collectionSummary.stream().forEach(collection -> {
-                    String collectionId = collection.getString(AJEntityCollection.ID);
-                    Integer resourceCount = resourceCountMap.get(collectionId);
-                    Integer questionCount = questionCountMap.get(collectionId);
-                    collectionSummaryArray.add(new JsonObject(new JsonFormatterBuilder()
+                collectionSummary.forEach(collection -> {
+                    JsonObject summary = new JsonObject(new JsonFormatterBuilder()
                         .buildSimpleJsonFormatter(false, AJEntityCollection.COLLECTION_SUMMARY_FIELDS)
-                        .toJson(collection))
-                            .put(AJEntityContent.RESOURCE_COUNT, resourceCount != null ? resourceCount : 0)
-                            .put(AJEntityContent.QUESTION_COUNT, questionCount != null ? questionCount : 0));
+                        .toJson(collection));
+                    Map<String, Object> counts = countsByCollection.get(collection.getString(AJEntityCollection.ID));
+                    summary.put(AJEntityContent.RESOURCE_COUNT, countOf(counts, AJEntityContent.RESOURCE_COUNT));
+                    summary.put(AJEntityContent.QUESTION_COUNT, countOf(counts, AJEntityContent.QUESTION_COUNT));
+                    collectionSummaryArray.add(summary);
                 });
-
                 resultBody.put(AJEntityCollection.COLLECTION_SUMMARY, collectionSummaryArray);
             }
 
@@ -161,25 +161,14 @@ public class FetchLessonHandler implements DBHandler {
         return true;
     }
 
-    private String listToPostgresArrayString(List<String> input) {
-        int approxSize = ((input.size() + 1) * 36); // Length of UUID is around
-                                                    // 36
-                                                    // chars
-        Iterator<String> it = input.iterator();
-        if (!it.hasNext()) {
-            return "{}";
-        }
+    // Collections without content are not returned by the count query
+    private static long countOf(Map<String, Object> counts, String key) {
+        Object count = counts == null ? null : counts.get(key);
+        return count instanceof Number ? ((Number) count).longValue() : 0;
+    }
 
-        StringBuilder sb = new StringBuilder(approxSize);
-        sb.append('{');
-        for (;;) {
-            String s = it.next();
-            sb.append('"').append(s).append('"');
-            if (!it.hasNext()) {
-                return sb.append('}').toString();
-            }
-            sb.append(',');
-        }
+    private static String toPostgresArrayString(Collection<String> input) {
+        return "{" + String.join(",", input) + "}";
     }
 
 }
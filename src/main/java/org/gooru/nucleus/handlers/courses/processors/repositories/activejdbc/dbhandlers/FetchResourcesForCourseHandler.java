@@ -1,14 +1,21 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.StreamingQuery;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityContent;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.formatter.JsonFormatter;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.formatter.JsonFormatterBuilder;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.javalite.activejdbc.Base;
 import org.javalite.activejdbc.LazyList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,11 +23,24 @@ import org.slf4j.LoggerFactory;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+/**
+ * Fetches resources of a course tagged with given taxonomy. Pages are asked
+ * for with limit and/or cursor, and carry next_cursor when there are more
+ * resources. Callers sending neither get every resource in one response
+ * without next_cursor, as they did before paging was introduced. Those are
+ * read through a server side cursor, pages are bounded and read as is.
+ */
 public class FetchResourcesForCourseHandler implements DBHandler {
 
     private final ProcessorContext context;
     private static final Logger LOGGER = LoggerFactory.getLogger(FetchResourcesForCourseHandler.class);
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 500;
     private String taxonomy;
+    private int limit;
+    private boolean paged;
+    private String lastResourceId;
+    private boolean includeCount;
     
     public FetchResourcesForCourseHandler(ProcessorContext context) {
         this.context = context;
@@ -42,7 +62,38 @@ public class FetchResourcesForCourseHandler implements DBHandler {
                 MessageResponseFactory.createInvalidRequestResponse("Invalid learning target or standard provided in request"),
                 ExecutionStatus.FAILED);
         }
-        
+
+        limit = DEFAULT_LIMIT;
+        String limitParam = readRequestParam(MessageConstants.LIMIT);
+        paged = limitParam != null;
+        if (limitParam != null) {
+            try {
+                limit = Integer.parseInt(limitParam);
+            } catch (NumberFormatException e) {
+                limit = -1;
+            }
+            if (limit < 1 || limit > MAX_LIMIT) {
+                LOGGER.warn("invalid limit '{}' provided in request", limitParam);
+                return new ExecutionResult<>(MessageResponseFactory.createInvalidRequestResponse(
+                    "Invalid limit provided in request, should be between 1 and " + MAX_LIMIT), ExecutionStatus.FAILED);
+            }
+        }
+
+        lastResourceId = AJEntityContent.RESOURCES_FIRST_PAGE_CURSOR;
+        String cursor = readRequestParam(MessageConstants.CURSOR);
+        if (cursor != null) {
+            paged = true;
+            lastResourceId = decodeCursor(cursor);
+            if (lastResourceId == null) {
+                LOGGER.warn("invalid cursor '{}' provided in request", cursor);
+                return new ExecutionResult<>(
+                    MessageResponseFactory.createInvalidRequestResponse("Invalid cursor provided in request"),
+                    ExecutionStatus.FAILED);
+            }
+        }
+
+        includeCount = Boolean.parseBoolean(readRequestParam(MessageConstants.COUNT));
+
         LOGGER.debug("checkSanity() OK");
         return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
     }
@@ -62,22 +113,53 @@ public class FetchResourcesForCourseHandler implements DBHandler {
 
     @Override
     public ExecutionResult<MessageResponse> executeRequest() {
-        LazyList<AJEntityContent> resourceList = AJEntityContent.findBySQL(AJEntityContent.SELECT_RESOURCES_BY_COURSE, context.courseId(), taxonomy);
+        JsonFormatter formatter =
+            new JsonFormatterBuilder().buildSimpleJsonFormatter(false, AJEntityContent.RESOURCES_BY_COURSE_FIELDS);
         JsonArray resourceArray = new JsonArray();
-        resourceList.stream().forEach(resource -> resourceArray.add(new JsonObject(new JsonFormatterBuilder()
-            .buildSimpleJsonFormatter(false, AJEntityContent.RESOURCES_BY_COURSE_FIELDS).toJson(resource))));
-        
         JsonObject responseBody = new JsonObject();
         responseBody.put(MessageConstants.RESP_JSON_KEY_RESOURCES, resourceArray);
-        
-        return new ExecutionResult<>(MessageResponseFactory.createGetResponse(responseBody),
-            ExecutionStatus.SUCCESSFUL);
+        if (!paged) {
+            // Result is not bounded, so it is read through a server side cursor
+            StreamingQuery.stream(AJEntityContent.SELECT_ALL_RESOURCES_BY_COURSE,
+                row -> resourceArray.add(new JsonObject(formatter.toJson(row))), context.courseId(), taxonomy);
+            return withCount(responseBody);
+        }
+
+        // Fetch one row more than asked for to know whether there is a next
+        // page
+        String[] lastId = new String[1];
+        boolean[] hasMore = new boolean[1];
+        Base.find(AJEntityContent.SELECT_RESOURCES_BY_COURSE, context.courseId(), taxonomy, lastResourceId, limit + 1)
+            .with(row -> {
+                if (resourceArray.size() < limit) {
+                    resourceArray.add(new JsonObject(formatter.toJson(row)));
+                    lastId[0] = String.valueOf(row.get(AJEntityContent.ID));
+                    return true;
+                }
+                hasMore[0] = true;
+                return false;
+            });
+        if (hasMore[0]) {
+            responseBody.put(MessageConstants.RESP_JSON_KEY_NEXT_CURSOR, encodeCursor(lastId[0]));
+        }
+        return withCount(responseBody);
     }
 
     @Override
     public boolean handlerReadOnly() {
         return true;
     }
+
+    private ExecutionResult<MessageResponse> withCount(JsonObject responseBody) {
+        if (includeCount) {
+            Object total =
+                Base.firstCell(AJEntityContent.SELECT_RESOURCES_BY_COURSE_COUNT, context.courseId(), taxonomy);
+            responseBody.put(MessageConstants.RESP_JSON_KEY_TOTAL, total == null ? 0L : Long.valueOf(total.toString()));
+        }
+
+        return new ExecutionResult<>(MessageResponseFactory.createGetResponse(responseBody),
+            ExecutionStatus.SUCCESSFUL);
+    }
     
     private String readRequestParam(String param) {
         JsonArray requestParams = context.request().getJsonArray(param);
@@ -88,6 +170,23 @@ public class FetchResourcesForCourseHandler implements DBHandler {
         String value = requestParams.getString(0);
         return (value != null && !value.isEmpty()) ? value : null;
     }
+
+    /*
+     * Cursor is opaque to clients, it carries the id of last resource of
+     * previous page
+     */
+    private static String encodeCursor(String resourceId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(resourceId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            String resourceId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return UUID.fromString(resourceId).toString();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
     
 
 }
@@ -3,11 +3,11 @@ package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.db
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.FieldProjection;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCollection;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityLesson;
@@ -28,6 +28,7 @@ import io.vertx.core.json.JsonObject;
 public class FetchUnitHandler implements DBHandler {
 
     private final ProcessorContext context;
+    private FieldProjection projection;
     private static final Logger LOGGER = LoggerFactory.getLogger(FetchUnitHandler.class);
 
     public FetchUnitHandler(ProcessorContext context) {
@@ -55,6 +56,15 @@ public class FetchUnitHandler implements DBHandler {
             return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
         }
 
+        projection = FieldProjection.of(context.request(), AJEntityUnit.UNIT_ID, AJEntityUnit.ALL_FIELDS,
+            AJEntityLesson.LESSON_SUMMARY);
+        if (projection == null) {
+            LOGGER.warn("invalid fields to fetch unit");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid fields provided to fetch unit"),
+                ExecutionStatus.FAILED);
+        }
+
         LOGGER.debug("checkSanity() OK");
         return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
     }
@@ -62,14 +72,14 @@ public class FetchUnitHandler implements DBHandler {
     @Override
     public ExecutionResult<MessageResponse> validateRequest() {
         LazyList<AJEntityCourse> ajEntityCourse =
-            AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE_TO_VALIDATE, context.courseId(), false);
+            AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE_TO_VALIDATE, context.courseUuid(), false);
         if (ajEntityCourse.isEmpty()) {
             LOGGER.warn("course {} not found to fetch unit, aborting", context.courseId());
             return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse(), ExecutionStatus.FAILED);
         }
 
         LazyList<AJEntityUnit> ajEntityUnit =
-            AJEntityUnit.findBySQL(AJEntityUnit.SELECT_UNIT_TO_VALIDATE, context.unitId(), context.courseId(), false);
+            AJEntityUnit.findBySQL(AJEntityUnit.SELECT_UNIT_TO_VALIDATE, context.unitUuid(), context.courseUuid(), false);
         if (ajEntityUnit.isEmpty()) {
             LOGGER.warn("Unit {} not found, aborting", context.unitId());
             return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse(), ExecutionStatus.FAILED);
@@ -81,46 +91,40 @@ public class FetchUnitHandler implements DBHandler {
     @Override
     public ExecutionResult<MessageResponse> executeRequest() {
         LazyList<AJEntityUnit> ajEntityUnits =
-            AJEntityUnit.findBySQL(AJEntityUnit.SELECT_UNIT, context.courseId(), context.unitId(), false);
+            AJEntityUnit.findBySQL(projection.query(AJEntityUnit.SELECT_UNIT, AJEntityUnit.SELECT_UNIT_FIELDS),
+                context.courseUuid(), context.unitUuid(), false);
         JsonObject resultBody;
         if (!ajEntityUnits.isEmpty()) {
             LOGGER.info("unit {} found, packing into JSON", context.unitId());
             resultBody = new JsonObject(new JsonFormatterBuilder()
-                .buildSimpleJsonFormatter(false, AJEntityUnit.ALL_FIELDS).toJson(ajEntityUnits.get(0)));
+                .buildSimpleJsonFormatter(false, projection.fields()).toJson(ajEntityUnits.get(0)));
+            if (!projection.includes(AJEntityLesson.LESSON_SUMMARY)) {
+                return new ExecutionResult<>(MessageResponseFactory.createGetResponse(resultBody),
+                    ExecutionStatus.SUCCESSFUL);
+            }
 
             LazyList<AJEntityLesson> lessons =
-                AJEntityLesson.findBySQL(AJEntityLesson.SELECT_LESSON_SUMMARY, context.unitId(), false);
+                AJEntityLesson.findBySQL(AJEntityLesson.SELECT_LESSON_SUMMARY, context.unitUuid(), false);
             LOGGER.debug("number of lessons found for unit {} : {}", context.unitId(), lessons.size());
             if (lessons.size() > 0) {
                 List<String> lessonIds = new ArrayList<>();
-                lessons.stream().forEach(lesson -> lessonIds.add(lesson.getString(AJEntityLesson.LESSON_ID)));
-
-                List<Map> collectionCount = Base.findAll(AJEntityCollection.SELECT_COLLECTION_ASSESSMET_COUNT_BY_LESSON,
-                    toPostgresArrayString(lessonIds), context.unitId(), context.courseId());
-                LOGGER.debug("collection count: {}", collectionCount.size());
-                Map<String, Integer> collectionCountByLesson = new HashMap<>();
-                collectionCount.stream()
-                    .filter(map -> map.get(AJEntityCollection.FORMAT) != null && map.get(AJEntityCollection.FORMAT)
-                        .toString().equalsIgnoreCase(AJEntityCollection.FORMAT_COLLECTION))
-                    .forEach(map -> collectionCountByLesson.put(map.get(AJEntityCollection.LESSON_ID).toString(),
-                        Integer.valueOf(map.get(AJEntityCollection.COLLECTION_COUNT).toString())));
-
-                Map<String, Integer> assessmentCountByLesson = new HashMap<>();
-                collectionCount.stream()
-                    .filter(map -> map.get(AJEntityCollection.FORMAT) != null && map.get(AJEntityCollection.FORMAT)
-                        .toString().equalsIgnoreCase(AJEntityCollection.FORMAT_ASSESSMENT))
-                    .forEach(map -> assessmentCountByLesson.put(map.get(AJEntityCollection.LESSON_ID).toString(),
-                        Integer.valueOf(map.get(AJEntityCollection.COLLECTION_COUNT).toString())));
+                lessons.forEach(lesson -> lessonIds.add(lesson.getString(AJEntityLesson.LESSON_ID)));
+                Map<String, Map<String, Object>> countsByLesson = new HashMap<>();
+                Base.find(AJEntityCollection.SELECT_COLLECTION_COUNTS_BY_LESSON, toPostgresArrayString(lessonIds),
+                    context.unitId(), context.courseId()).with(row -> {
+                        countsByLesson.put(String.valueOf(row.get(AJEntityCollection.LESSON_ID)), row);
+                        return true;
+                    });
 
                 JsonArray lessonSummaryArray = new JsonArray();
-                lessons.stream().forEach(lesson -> {
+                lessons.forEach(lesson -> {
                     JsonObject lessonSummary = new JsonObject(new JsonFormatterBuilder()
                         .buildSimpleJsonFormatter(false, AJEntityLesson.LESSON_SUMMARY_FIELDS).toJson(lesson));
-                    String lessonId = lesson.get(AJEntityCollection.ID).toString();
-                    Integer collectionCnt = collectionCountByLesson.get(lessonId);
-                    Integer assessmentCnt = assessmentCountByLesson.get(lessonId);
-                    lessonSummary.put(AJEntityCollection.COLLECTION_COUNT, collectionCnt != null ? collectionCnt : 0);
-                    lessonSummary.put(AJEntityCollection.ASSESSMENT_COUNT, assessmentCnt != null ? assessmentCnt : 0);
+                    Map<String, Object> counts = countsByLesson.get(lesson.getString(AJEntityLesson.LESSON_ID));
+                    lessonSummary.put(AJEntityCollection.COLLECTION_COUNT,
+                        countOf(counts, AJEntityCollection.COLLECTION_COUNT));
+                    lessonSummary.put(AJEntityCollection.ASSESSMENT_COUNT,
+                        countOf(counts, AJEntityCollection.ASSESSMENT_COUNT));
                     lessonSummaryArray.add(lessonSummary);
                 });
                 resultBody.put(AJEntityLesson.LESSON_SUMMARY, lessonSummaryArray);
@@ -138,25 +142,14 @@ public class FetchUnitHandler implements DBHandler {
         return true;
     }
 
-    private String toPostgresArrayString(Collection<String> input) {
-        int approxSize = ((input.size() + 1) * 36); // Length of UUID is around
-                                                    // 36
-                                                    // chars
-        Iterator<String> it = input.iterator();
-        if (!it.hasNext()) {
-            return "{}";
-        }
+    // Lessons without collections are not returned by the count query
+    private static long countOf(Map<String, Object> counts, String key) {
+        Object count = counts == null ? null : counts.get(key);
+        return count instanceof Number ? ((Number) count).longValue() : 0;
+    }
 
-        StringBuilder sb = new StringBuilder(approxSize);
-        sb.append('{');
-        for (;;) {
-            String s = it.next();
-            sb.append('"').append(s).append('"');
-            if (!it.hasNext()) {
-                return sb.append('}').toString();
-            }
-            sb.append(',');
-        }
+    private static String toPostgresArrayString(Collection<String> input) {
+        return "{" + String.join(",", input) + "}";
     }
 
 }
@@ -1,11 +1,16 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
-import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCollection;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityContent;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
@@ -15,6 +20,7 @@ import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.gooru.nucleus.handlers.courses.processors.utils.UuidUtils;
 import org.javalite.activejdbc.Base;
 import org.javalite.activejdbc.LazyList;
 import org.slf4j.Logger;
@@ -25,9 +31,8 @@ import io.vertx.core.json.JsonObject;
 public class MoveCollectionToLessonHandler implements DBHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CreateCourseHandler.class);
+    private static final String COLLECTION_ID = "collection_id";
     private final ProcessorContext context;
-    private AJEntityCollection collectionToUpdate;
-    private String targetCourseOwner;
 
     public MoveCollectionToLessonHandler(ProcessorContext context) {
         this.context = context;
@@ -35,21 +40,21 @@ public class MoveCollectionToLessonHandler implements DBHandler {
 
     @Override
     public ExecutionResult<MessageResponse> checkSanity() {
-        if (context.courseId() == null || context.courseId().isEmpty()) {
+        if (context.courseUuid() == null) {
             LOGGER.warn("invalid course id to move collection/assessment");
             return new ExecutionResult<>(
                 MessageResponseFactory.createInvalidRequestResponse("Invalid course id to move collection/assessment"),
                 ExecutionStatus.FAILED);
         }
 
-        if (context.unitId() == null || context.unitId().isEmpty()) {
+        if (context.unitUuid() == null) {
             LOGGER.warn("invalid unit id to move collection/assessment");
             return new ExecutionResult<>(
                 MessageResponseFactory.createInvalidRequestResponse("Invalid unit id to move collection/assessment"),
                 ExecutionStatus.FAILED);
         }
 
-        if (context.lessonId() == null || context.lessonId().isEmpty()) {
+        if (context.lessonUuid() == null) {
             LOGGER.warn("invalid lesson id to move collection/assessment");
             return new ExecutionResult<>(
                 MessageResponseFactory.createInvalidRequestResponse("Invalid lesson id to move collection/assessment"),
@@ -74,22 +79,133 @@ public class MoveCollectionToLessonHandler implements DBHandler {
                 ExecutionResult.ExecutionStatus.FAILED);
         }
 
+        // If request contains course_id, then collection to move is associated
+        // with CUL and source course, unit and lesson are needed
+        if (context.request().containsKey(AJEntityCollection.COURSE_ID)) {
+            JsonObject notNullErrors = validateNullFields();
+            if (notNullErrors != null && !notNullErrors.isEmpty()) {
+                return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(notNullErrors),
+                    ExecutionResult.ExecutionStatus.FAILED);
+            }
+        }
+
+        // Source ids are cast to uuid by the move, malformed ones would fail it
+        JsonObject invalidIds = validateIds();
+        if (!invalidIds.isEmpty()) {
+            LOGGER.warn("invalid ids to move collection/assessment: {}", invalidIds.fieldNames());
+            return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(invalidIds),
+                ExecutionResult.ExecutionStatus.FAILED);
+        }
+
         LOGGER.debug("checkSanity() OK");
         return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
     }
 
     @Override
     public ExecutionResult<MessageResponse> validateRequest() {
-        // first check whether collection is part of CUL, if its part of CUL
-        // then
-        // validate for both source and target
-        // If collection is not part of CUL then validate only target
+        // Source and target are validated and authorized by the move itself
+        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> executeRequest() {
+        String collectionToMove = context.request().getString(COLLECTION_ID);
+        // Allocation only reads the siblings, so it touches nothing when the
+        // move is then refused
+        int sequenceId = SequenceIdAllocator.nextCollectionSequenceId(context.lessonId());
+
+        List<Map> moved;
+        if (context.request().containsKey(AJEntityCollection.COURSE_ID)) {
+            moved = Base.findAll(AJEntityCollection.MOVE_COLLECTION_FROM_LESSON, sequenceId, context.userId(),
+                context.courseId(), context.unitId(), context.lessonId(), context.userId(), context.userId(),
+                collectionToMove, context.request().getString(AJEntityCollection.COURSE_ID),
+                context.request().getString(AJEntityCollection.UNIT_ID),
+                context.request().getString(AJEntityCollection.LESSON_ID), context.userId(), context.userId());
+        } else {
+            moved = Base.findAll(AJEntityCollection.MOVE_STANDALONE_COLLECTION, sequenceId, context.userId(),
+                context.courseId(), context.unitId(), context.lessonId(), context.userId(), context.userId(),
+                collectionToMove, context.userId());
+        }
+
+        if (moved.isEmpty()) {
+            return diagnoseFailedMove(collectionToMove);
+        }
+
+        LOGGER.info("collection is moved to course");
+        AJEntityContent.update("course_id = ?::uuid, unit_id = ?::uuid, lesson_id = ?::uuid, modifier_id = ?::uuid",
+            "collection_id = ?::uuid", context.courseId(), context.unitId(), context.lessonId(), context.userId(),
+            collectionToMove);
+
+        CourseTouchCoalescer.getInstance().touch(context.courseId());
+
+        return new ExecutionResult<>(
+            MessageResponseFactory.createNoContentResponse(EventBuilderFactory.getMoveCollectionEventBuilder(
+                context.courseId(), context.unitId(), context.lessonId(), context.request())),
+            ExecutionStatus.SUCCESSFUL);
+    }
+
+    @Override
+    public boolean handlerReadOnly() {
+        return false;
+    }
 
+    // Source course comes in request, it is absent when collection is not in CUL
+    @Override
+    public Collection<String> coursesToLock() {
+        return Arrays.asList(context.courseId(), context.request().getString(AJEntityCollection.COURSE_ID));
+    }
+
+    private JsonObject validateNullFields() {
+        JsonObject input = context.request();
+        JsonObject output = new JsonObject();
+        input.fieldNames().stream()
+            .filter(key -> AJEntityCollection.COLLECTION_MOVE_NOTNULL_FIELDS.contains(key)
+                && (input.getValue(key) == null || input.getValue(key).toString().isEmpty()))
+            .forEach(key -> output.put(key, "Field should not be empty or null"));
+        return output.isEmpty() ? null : output;
+    }
+
+    private JsonObject validateIds() {
+        JsonObject input = context.request();
+        JsonObject output = new JsonObject();
+        List<String> keys = new ArrayList<>();
+        keys.add(COLLECTION_ID);
+        if (input.containsKey(AJEntityCollection.COURSE_ID)) {
+            keys.addAll(AJEntityCollection.COLLECTION_MOVE_NOTNULL_FIELDS);
+        }
+        keys.stream().filter(key -> {
+            Object value = input.getValue(key);
+            return !(value instanceof String) || !UuidUtils.isValid((String) value);
+        }).forEach(key -> output.put(key, "Field should be a valid id"));
+        return output;
+    }
+
+    private JsonObject validateMandatoryFields() {
+        JsonObject input = context.request();
+        JsonObject output = new JsonObject();
+
+        if (!input.containsKey("collection_id")) {
+            output.put("collection_id", "Mandatory field");
+            return output;
+        }
+
+        if (input.getString("collection_id") == null || input.getString("collection_id").isEmpty()) {
+            output.put("collection_id", "Field should not be empty or null");
+        }
+
+        return output;
+    }
+
+    /*
+     * Move did not happen, so find out why by going through source and target
+     * one by one. This is off the happy path hence the extra queries here do
+     * not matter. If collection is part of CUL then both source and target are
+     * checked, else only target and ownership of collection.
+     */
+    private ExecutionResult<MessageResponse> diagnoseFailedMove(String collectionToMove) {
         String targetCourseId = context.courseId();
         String targetUnitId = context.unitId();
         String targetLessonId = context.lessonId();
-        String collectionToMove = context.request().getString("collection_id");
-        // String type = context.request().getString("type");
 
         LazyList<AJEntityCourse> targetCourses = AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE_TO_AUTHORIZE,
             targetCourseId, false, context.userId(), context.userId());
@@ -98,8 +214,6 @@ public class MoveCollectionToLessonHandler implements DBHandler {
             return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
         }
 
-        targetCourseOwner = targetCourses.get(0).getString(AJEntityCourse.OWNER_ID);
-
         LazyList<AJEntityUnit> targetUnits =
             AJEntityUnit.findBySQL(AJEntityUnit.SELECT_UNIT_TO_VALIDATE, targetUnitId, targetCourseId, false);
         if (targetUnits.isEmpty()) {
@@ -124,18 +238,8 @@ public class MoveCollectionToLessonHandler implements DBHandler {
                 ExecutionStatus.FAILED);
         }
 
-        collectionToUpdate = collections.get(0);
-        // If request contains course_id, then collection to move is associated
-        // with
-        // CUL
+        AJEntityCollection collectionToUpdate = collections.get(0);
         if (context.request().containsKey(AJEntityCollection.COURSE_ID)) {
-
-            JsonObject notNullErrors = validateNullFields();
-            if (notNullErrors != null && !notNullErrors.isEmpty()) {
-                return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(notNullErrors),
-                    ExecutionResult.ExecutionStatus.FAILED);
-            }
-
             String sourceCourseId = context.request().getString("course_id");
             String sourceUnitId = context.request().getString("unit_id");
             String sourceLessonId = context.request().getString("lesson_id");
@@ -186,11 +290,6 @@ public class MoveCollectionToLessonHandler implements DBHandler {
                     ExecutionStatus.FAILED);
             }
         } else {
-            // if the course_id is null in request, then its not associated with
-            // CUL
-            // As the collection is not part of CUL, check whether the user is
-            // owner
-            // of collection to move it
             if (!collectionToUpdate.getString("owner_id").equalsIgnoreCase(context.userId())) {
                 LOGGER.warn("user is not owner of collection to move");
                 return new ExecutionResult<>(
@@ -199,99 +298,10 @@ public class MoveCollectionToLessonHandler implements DBHandler {
             }
         }
 
-        LOGGER.debug("validateRequest() OK");
-        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
-    }
-
-    @Override
-    public ExecutionResult<MessageResponse> executeRequest() {
-        collectionToUpdate.setCourseId(context.courseId());
-        collectionToUpdate.setUnitId(context.unitId());
-        collectionToUpdate.setLessonId(context.lessonId());
-        collectionToUpdate.setModifierId(context.userId());
-        collectionToUpdate.setOwnerId(targetCourseOwner);
-        collectionToUpdate.set(AJEntityCollection.COLLABORATOR, null);
-
-        Object maxSequenceId = Base.firstCell(AJEntityCollection.SELECT_COLLECTION_MAX_SEQUENCEID, context.lessonId());
-        int sequenceId = 1;
-        if (maxSequenceId != null) {
-            sequenceId = Integer.valueOf(maxSequenceId.toString()) + 1;
-        }
-        collectionToUpdate.set(AJEntityCollection.SEQUENCE_ID, sequenceId);
-
-        if (collectionToUpdate.hasErrors()) {
-            LOGGER.warn("moving collection has errors");
-            return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(getModelErrors()),
-                ExecutionStatus.FAILED);
-        }
-
-        if (collectionToUpdate.save()) {
-            LOGGER.info("collection is moved to course");
-            AJEntityContent.update("course_id = ?::uuid, unit_id = ?::uuid, lesson_id = ?::uuid, modifier_id = ?::uuid",
-                "collection_id = ?::uuid", context.courseId(), context.unitId(), context.lessonId(), context.userId(),
-                collectionToUpdate.getId());
-
-            AJEntityCourse courseToUpdate = new AJEntityCourse();
-            courseToUpdate.setCourseId(context.courseId());
-            courseToUpdate.setTimestamp(AJEntityCourse.UPDATED_AT, new Timestamp(System.currentTimeMillis()));
-            boolean result = courseToUpdate.save();
-            if (!result) {
-                LOGGER.error("Course with id '{}' failed to save modified time stamp", context.courseId());
-                if (courseToUpdate.hasErrors()) {
-                    Map<String, String> map = courseToUpdate.errors();
-                    JsonObject errors = new JsonObject();
-                    map.forEach(errors::put);
-                    return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(errors),
-                        ExecutionStatus.FAILED);
-                }
-            }
-
-            return new ExecutionResult<>(
-                MessageResponseFactory.createNoContentResponse(EventBuilderFactory.getMoveCollectionEventBuilder(
-                    context.courseId(), context.unitId(), context.lessonId(), context.request())),
-                ExecutionStatus.SUCCESSFUL);
-        } else {
-            LOGGER.error("error while moving collection to lesson");
-            return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(getModelErrors()),
-                ExecutionStatus.FAILED);
-        }
-    }
-
-    @Override
-    public boolean handlerReadOnly() {
-        return false;
-    }
-
-    private JsonObject validateNullFields() {
-        JsonObject input = context.request();
-        JsonObject output = new JsonObject();
-        input.fieldNames().stream()
-            .filter(key -> AJEntityCollection.COLLECTION_MOVE_NOTNULL_FIELDS.contains(key)
-                && (input.getValue(key) == null || input.getValue(key).toString().isEmpty()))
-            .forEach(key -> output.put(key, "Field should not be empty or null"));
-        return output.isEmpty() ? null : output;
-    }
-
-    private JsonObject validateMandatoryFields() {
-        JsonObject input = context.request();
-        JsonObject output = new JsonObject();
-
-        if (!input.containsKey("collection_id")) {
-            output.put("collection_id", "Mandatory field");
-            return output;
-        }
-
-        if (input.getString("collection_id") == null || input.getString("collection_id").isEmpty()) {
-            output.put("collection_id", "Field should not be empty or null");
-        }
-
-        return output;
-    }
-
-    private JsonObject getModelErrors() {
-        JsonObject errors = new JsonObject();
-        this.collectionToUpdate.errors().entrySet().forEach(entry -> errors.put(entry.getKey(), entry.getValue()));
-        return errors;
+        // Everything checks out now, so it changed under us
+        LOGGER.warn("collection {} could not be moved, state changed concurrently", collectionToMove);
+        return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse("Collection not found"),
+            ExecutionStatus.FAILED);
     }
 
 }
@@ -0,0 +1,242 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
+import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
+import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
+import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCollection;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityContent;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityLesson;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
+import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.gooru.nucleus.handlers.courses.processors.utils.UuidUtils;
+import org.javalite.activejdbc.Base;
+import org.javalite.activejdbc.LazyList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Moves multiple collections from one source into the target lesson in one
+ * go. Source is either a lesson given by course_id, unit_id and lesson_id in
+ * request, or collections outside of any course owned by the user, the same as
+ * for single move.
+ * <p>
+ * Source and target are authorized once. Collections are then locked, and
+ * they are re-parented along with their content with one statement each.
+ * Moved collections are placed at the end of target lesson in the order in
+ * which they are listed.
+ */
+public class MoveCollectionsToLessonHandler implements DBHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MoveCollectionsToLessonHandler.class);
+    private static final String COLLECTION_IDS = "collection_ids";
+    private static final int MAX_COLLECTIONS = 100;
+    private final ProcessorContext context;
+    private Set<String> collectionIds;
+    private String targetOwner;
+
+    public MoveCollectionsToLessonHandler(ProcessorContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> checkSanity() {
+        if (context.courseUuid() == null || context.unitUuid() == null || context.lessonUuid() == null) {
+            LOGGER.warn("invalid target to move collections/assessments");
+            return new ExecutionResult<>(
+                MessageResponseFactory.createInvalidRequestResponse("Invalid target to move collections/assessments"),
+                ExecutionStatus.FAILED);
+        }
+
+        if (context.userId() == null || context.userId().isEmpty()
+            || context.userId().equalsIgnoreCase(MessageConstants.MSG_USER_ANONYMOUS)) {
+            LOGGER.warn("Anonymous user attempting to move collections/assessments");
+            return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
+        }
+
+        collectionIds = readCollectionIds();
+        if (collectionIds == null || collectionIds.isEmpty()) {
+            LOGGER.warn("invalid collection ids to move");
+            return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(
+                new JsonObject().put(COLLECTION_IDS, "Field should be an array of collection ids")),
+                ExecutionStatus.FAILED);
+        }
+
+        if (collectionIds.size() > MAX_COLLECTIONS) {
+            LOGGER.warn("too many collections '{}' to move", collectionIds.size());
+            return new ExecutionResult<>(MessageResponseFactory
+                .createInvalidRequestResponse("At most " + MAX_COLLECTIONS + " collections can be moved"),
+                ExecutionStatus.FAILED);
+        }
+
+        if (isFromLesson()) {
+            JsonObject notNullErrors = validateSourceFields();
+            if (!notNullErrors.isEmpty()) {
+                return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(notNullErrors),
+                    ExecutionResult.ExecutionStatus.FAILED);
+            }
+        }
+
+        LOGGER.debug("checkSanity() OK");
+        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> validateRequest() {
+        LazyList<AJEntityCourse> targetCourses = AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE_TO_AUTHORIZE,
+            context.courseId(), false, context.userId(), context.userId());
+        if (targetCourses.isEmpty()) {
+            LOGGER.warn("user is not owner or collaborator of target course to move collections. aborting");
+            return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
+        }
+        targetOwner = targetCourses.get(0).getString(AJEntityCourse.OWNER_ID);
+
+        ExecutionResult<MessageResponse> targetResult =
+            validateLesson(context.courseId(), context.unitId(), context.lessonId(), "target");
+        if (targetResult != null) {
+            return targetResult;
+        }
+
+        if (isFromLesson()) {
+            String sourceCourseId = context.request().getString(AJEntityCollection.COURSE_ID);
+            LazyList<AJEntityCourse> sourceCourses = AJEntityCourse
+                .findBySQL(AJEntityCourse.SELECT_COURSE_TO_AUTHORIZE, sourceCourseId, false, context.userId(),
+                    context.userId());
+            if (sourceCourses.isEmpty()) {
+                LOGGER.warn("user is not owner or collaborator of source course to move collections. aborting");
+                return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
+            }
+
+            ExecutionResult<MessageResponse> sourceResult =
+                validateLesson(sourceCourseId, context.request().getString(AJEntityCollection.UNIT_ID),
+                    context.request().getString(AJEntityCollection.LESSON_ID), "source");
+            if (sourceResult != null) {
+                return sourceResult;
+            }
+        }
+
+        LOGGER.debug("validateRequest() OK");
+        return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
+    }
+
+    @Override
+    public ExecutionResult<MessageResponse> executeRequest() {
+        String idArray = toPostgresArrayString(collectionIds);
+        List<Map> collections;
+        if (isFromLesson()) {
+            collections = Base.findAll(AJEntityCollection.SELECT_COLLECTIONS_TO_MOVE_FROM_LESSON, idArray,
+                context.request().getString(AJEntityCollection.COURSE_ID),
+                context.request().getString(AJEntityCollection.UNIT_ID),
+                context.request().getString(AJEntityCollection.LESSON_ID));
+        } else {
+            collections =
+                Base.findAll(AJEntityCollection.SELECT_STANDALONE_COLLECTIONS_TO_MOVE, idArray, context.userId());
+        }
+
+        if (collections.size() != collectionIds.size()) {
+            LOGGER.warn("only {} of {} collections found at source to move", collections.size(), collectionIds.size());
+            return new ExecutionResult<>(
+                MessageResponseFactory.createNotFoundResponse("Collection(s) not found at source"),
+                ExecutionStatus.FAILED);
+        }
+
+        int firstSequenceId =
+            SequenceIdAllocator.allocateCollectionSequenceIds(context.lessonId(), collectionIds.size());
+        Base.exec(AJEntityCollection.MOVE_COLLECTIONS, context.courseId(), context.unitId(), context.lessonId(),
+            targetOwner, firstSequenceId, context.userId(), idArray);
+        Base.exec(AJEntityContent.MOVE_CONTENT_OF_COLLECTIONS, context.courseId(), context.unitId(),
+            context.lessonId(), context.userId(), idArray);
+        LOGGER.info("{} collections moved to lesson {}", collections.size(), context.lessonId());
+
+        CourseTouchCoalescer.getInstance().touch(context.courseId());
+
+        return new ExecutionResult<>(
+            MessageResponseFactory.createNoContentResponse(EventBuilderFactory.getMoveCollectionsEventBuilder(
+                context.courseId(), context.unitId(), context.lessonId(), context.request())),
+            ExecutionStatus.SUCCESSFUL);
+    }
+
+    @Override
+    public boolean handlerReadOnly() {
+        return false;
+    }
+
+    @Override
+    public Collection<String> coursesToLock() {
+        return Arrays.asList(context.courseId(), context.request().getString(AJEntityCollection.COURSE_ID));
+    }
+
+    private boolean isFromLesson() {
+        return context.request().containsKey(AJEntityCollection.COURSE_ID);
+    }
+
+    /*
+     * Ids are normalized to lower case form and duplicates are dropped, any
+     * invalid id fails the whole request
+     */
+    private Set<String> readCollectionIds() {
+        Object value = context.request().getValue(COLLECTION_IDS);
+        if (!(value instanceof JsonArray)) {
+            return null;
+        }
+        Set<String> ids = new LinkedHashSet<>();
+        for (Object element : (JsonArray) value) {
+            UUID id = element instanceof String ? UuidUtils.parse((String) element) : null;
+            if (id == null) {
+                return null;
+            }
+            ids.add(id.toString());
+        }
+        return ids;
+    }
+
+    private JsonObject validateSourceFields() {
+        JsonObject input = context.request();
+        JsonObject output = new JsonObject();
+        AJEntityCollection.COLLECTION_MOVE_NOTNULL_FIELDS.stream().filter(key -> {
+            Object value = input.getValue(key);
+            return !(value instanceof String) || !UuidUtils.isValid((String) value);
+        }).forEach(key -> output.put(key, "Field should be a valid id"));
+        return output;
+    }
+
+    private ExecutionResult<MessageResponse> validateLesson(String courseId, String unitId, String lessonId,
+        String side) {
+        LazyList<AJEntityUnit> units =
+            AJEntityUnit.findBySQL(AJEntityUnit.SELECT_UNIT_TO_VALIDATE, unitId, courseId, false);
+        if (units.isEmpty()) {
+            LOGGER.warn("{} unit is not found in database", side);
+            return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse(side + " unit is not found"),
+                ExecutionStatus.FAILED);
+        }
+
+        LazyList<AJEntityLesson> lessons =
+            AJEntityLesson.findBySQL(AJEntityLesson.SELECT_LESSON_TO_VALIDATE, lessonId, unitId, courseId, false);
+        if (lessons.isEmpty()) {
+            LOGGER.warn("{} lesson is not found in database", side);
+            return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse(side + " lesson is not found"),
+                ExecutionStatus.FAILED);
+        }
+        return null;
+    }
+
+    private static String toPostgresArrayString(Collection<String> input) {
+        return "{" + String.join(",", input) + "}";
+    }
+}
@@ -1,11 +1,14 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
-import java.sql.Timestamp;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Collection;
 
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.ChildCounters;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCollection;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityContent;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
@@ -15,7 +18,6 @@ import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
-import org.javalite.activejdbc.Base;
 import org.javalite.activejdbc.LazyList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -142,18 +144,14 @@ public class MoveLessonToUnitHandler implements DBHandler {
 
     @Override
     public ExecutionResult<MessageResponse> executeRequest() {
+        String sourceUnitId = lessonToUpdate.getString(AJEntityLesson.UNIT_ID);
         lessonToUpdate.setCourseId(context.courseId());
         lessonToUpdate.setUnitId(context.unitId());
         lessonToUpdate.setModifierId(context.userId());
         lessonToUpdate.setOwnerId(targetCourseOwner);
 
-        Object maxSequenceId =
-            Base.firstCell(AJEntityLesson.SELECT_LESSON_MAX_SEQUENCEID, context.courseId(), context.unitId());
-        int sequenceId = 1;
-        if (maxSequenceId != null) {
-            sequenceId = Integer.valueOf(maxSequenceId.toString()) + 1;
-        }
-        lessonToUpdate.set(AJEntityLesson.SEQUENCE_ID, sequenceId);
+        lessonToUpdate.set(AJEntityLesson.SEQUENCE_ID,
+            SequenceIdAllocator.nextLessonSequenceId(context.courseId(), context.unitId()));
 
         if (lessonToUpdate.hasErrors()) {
             LOGGER.warn("moving lesson has errors");
@@ -170,20 +168,9 @@ public class MoveLessonToUnitHandler implements DBHandler {
             AJEntityContent.update("course_id = ?::uuid, unit_id = ?::uuid, modifier_id = ?::uuid",
                 "lesson_id = ?::uuid", context.courseId(), context.unitId(), context.userId(), lessonToUpdate.getId());
 
-            AJEntityCourse courseToUpdate = new AJEntityCourse();
-            courseToUpdate.setCourseId(context.courseId());
-            courseToUpdate.setTimestamp(AJEntityCourse.UPDATED_AT, new Timestamp(System.currentTimeMillis()));
-            boolean result = courseToUpdate.save();
-            if (!result) {
-                LOGGER.error("Course with id '{}' failed to save modified time stamp", context.courseId());
-                if (courseToUpdate.hasErrors()) {
-                    Map<String, String> map = courseToUpdate.errors();
-                    JsonObject errors = new JsonObject();
-                    map.forEach(errors::put);
-                    return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(errors),
-                        ExecutionStatus.FAILED);
-                }
-            }
+            ChildCounters.adjustLessonCount(sourceUnitId, -1);
+            ChildCounters.adjustLessonCount(context.unitId(), 1);
+            CourseTouchCoalescer.getInstance().touch(context.courseId());
 
             return new ExecutionResult<>(
                 MessageResponseFactory.createNoContentResponse(EventBuilderFactory
@@ -201,6 +188,11 @@ public class MoveLessonToUnitHandler implements DBHandler {
         return false;
     }
 
+    @Override
+    public Collection<String> coursesToLock() {
+        return Arrays.asList(context.courseId(), context.request().getString("course_id"));
+    }
+
     private JsonObject validateFields() {
         JsonObject input = context.request();
         JsonObject output = new JsonObject();
@@ -1,11 +1,13 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
-import java.sql.Timestamp;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Collection;
 
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCollection;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityContent;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
@@ -15,7 +17,6 @@ import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
-import org.javalite.activejdbc.Base;
 import org.javalite.activejdbc.LazyList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -129,14 +130,7 @@ public class MoveUnitToCourseHandler implements DBHandler {
         unitToUpdate.setModifierId(context.userId());
         unitToUpdate.setOwnerId(targetCourseOwner);
 
-        // Get max sequence id for course
-        Object maxSequenceId = Base.firstCell(AJEntityUnit.SELECT_UNIT_MAX_SEQUENCEID, context.courseId());
-        int sequenceId = 1;
-        if (maxSequenceId != null) {
-            sequenceId = Integer.valueOf(maxSequenceId.toString()) + 1;
-
-        }
-        unitToUpdate.set(AJEntityUnit.SEQUENCE_ID, sequenceId);
+        unitToUpdate.set(AJEntityUnit.SEQUENCE_ID, SequenceIdAllocator.nextUnitSequenceId(context.courseId()));
 
         if (unitToUpdate.hasErrors()) {
             LOGGER.warn("moving unit has errors");
@@ -155,20 +149,7 @@ public class MoveUnitToCourseHandler implements DBHandler {
             AJEntityContent.update("course_id = ?::uuid, modifier_id = ?::uuid", "unit_id = ?::uuid",
                 context.courseId(), context.userId(), unitToUpdate.getId());
 
-            AJEntityCourse courseToUpdate = new AJEntityCourse();
-            courseToUpdate.setCourseId(context.courseId());
-            courseToUpdate.setTimestamp(AJEntityCourse.UPDATED_AT, new Timestamp(System.currentTimeMillis()));
-            boolean result = courseToUpdate.save();
-            if (!result) {
-                LOGGER.error("Course with id '{}' failed to save modified time stamp", context.courseId());
-                if (courseToUpdate.hasErrors()) {
-                    Map<String, String> map = courseToUpdate.errors();
-                    JsonObject errors = new JsonObject();
-                    map.forEach(errors::put);
-                    return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(errors),
-                        ExecutionStatus.FAILED);
-                }
-            }
+            CourseTouchCoalescer.getInstance().touch(context.courseId());
 
             return new ExecutionResult<>(MessageResponseFactory.createNoContentResponse(
                 EventBuilderFactory.getMoveUnitEventBuilder(context.courseId(), context.request())), ExecutionStatus.SUCCESSFUL);
@@ -184,6 +165,11 @@ public class MoveUnitToCourseHandler implements DBHandler {
         return false;
     }
 
+    @Override
+    public Collection<String> coursesToLock() {
+        return Arrays.asList(context.courseId(), context.request().getString("course_id"));
+    }
+
     private JsonObject validateFields() {
         JsonObject input = context.request();
         JsonObject output = new JsonObject();
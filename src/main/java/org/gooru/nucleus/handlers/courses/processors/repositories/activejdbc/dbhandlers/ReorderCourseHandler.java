@@ -8,9 +8,11 @@ import java.util.UUID;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.RetryableFailures;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
-import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
 import org.javalite.activejdbc.Base;
@@ -81,6 +83,7 @@ public class ReorderCourseHandler implements DBHandler {
             }
 
             PreparedStatement ps = Base.startBatch(AJEntityCourse.REORDER_QUERY);
+            int maxSequenceId = 0;
             for (Object entry : input) {
                 String payloadCourseId = ((JsonObject) entry).getString(REORDER_PAYLOAD_ID);
                 if (!coursesToReorder.contains(UUID.fromString(payloadCourseId))) {
@@ -91,9 +94,14 @@ public class ReorderCourseHandler implements DBHandler {
 
                 int sequenceId = ((JsonObject) entry).getInteger(AJEntityCourse.SEQUENCE_ID);
                 Base.addBatch(ps, sequenceId, payloadCourseId, subjectBucket, context.userId());
+                maxSequenceId = Math.max(maxSequenceId, sequenceId);
             }
             Base.executeBatch(ps);
+            SequenceIdAllocator.raiseCourseCounter(context.userId(), subjectBucket, maxSequenceId);
         } catch (DBException | ClassCastException e) {
+            if (RetryableFailures.isRetryable(e)) {
+                throw e;
+            }
             LOGGER.error("incorrect payload data type", e);
             return new ExecutionResult<>(
                 MessageResponseFactory.createInvalidRequestResponse("Incorrect payload data types"),
@@ -1,20 +1,23 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
 import java.sql.PreparedStatement;
-import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.RetryableFailures;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityLesson;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
-import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
 import org.javalite.activejdbc.Base;
@@ -113,6 +116,7 @@ public class ReorderLessonInUnitHandler implements DBHandler {
             }
 
             PreparedStatement ps = Base.startBatch(AJEntityLesson.REORDER_QUERY);
+            int maxSequenceId = 0;
 
             for (Object entry : input) {
                 String payloadLessonId = ((JsonObject) entry).getString(REORDER_PAYLOAD_ID);
@@ -124,26 +128,18 @@ public class ReorderLessonInUnitHandler implements DBHandler {
                 int sequenceId = ((JsonObject) entry).getInteger(AJEntityLesson.SEQUENCE_ID);
                 Base.addBatch(ps, sequenceId, this.context.userId(), payloadLessonId, context.unitId(),
                     context.courseId(), false);
+                maxSequenceId = Math.max(maxSequenceId, sequenceId);
             }
 
             Base.executeBatch(ps);
+            SequenceIdAllocator.raiseLessonCounter(context.unitId(), maxSequenceId);
 
-            AJEntityCourse courseToUpdate = new AJEntityCourse();
-            courseToUpdate.setCourseId(context.courseId());
-            courseToUpdate.setTimestamp(AJEntityCourse.UPDATED_AT, new Timestamp(System.currentTimeMillis()));
-            boolean result = courseToUpdate.save();
-            if (!result) {
-                LOGGER.error("Course with id '{}' failed to save modified time stamp", context.courseId());
-                if (courseToUpdate.hasErrors()) {
-                    Map<String, String> map = courseToUpdate.errors();
-                    JsonObject errors = new JsonObject();
-                    map.forEach(errors::put);
-                    return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(errors),
-                        ExecutionStatus.FAILED);
-                }
-            }
+            CourseTouchCoalescer.getInstance().touch(context.courseId());
 
         } catch (DBException | ClassCastException e) {
+            if (RetryableFailures.isRetryable(e)) {
+                throw e;
+            }
             LOGGER.error("incorrect payload data type", e);
             return new ExecutionResult<>(
                 MessageResponseFactory.createInvalidRequestResponse("Incorrect payload data types"),
@@ -159,6 +155,11 @@ public class ReorderLessonInUnitHandler implements DBHandler {
         return false;
     }
 
+    @Override
+    public Collection<String> coursesToLock() {
+        return Collections.singletonList(context.courseId());
+    }
+
     private boolean reorderPayloadValidator(Object value) {
         if (!(value instanceof JsonArray) || value == null || ((JsonArray) value).isEmpty()) {
             return false;
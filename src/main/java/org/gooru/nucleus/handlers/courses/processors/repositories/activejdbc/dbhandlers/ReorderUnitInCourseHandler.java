@@ -1,21 +1,27 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
 import java.sql.PreparedStatement;
-import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.RetryableFailures;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
-import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
+import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.gooru.nucleus.handlers.courses.processors.utils.UuidUtils;
 import org.javalite.activejdbc.Base;
 import org.javalite.activejdbc.DBException;
 import org.javalite.activejdbc.LazyList;
@@ -88,7 +94,12 @@ public class ReorderUnitInCourseHandler implements DBHandler {
     @Override
     public ExecutionResult<MessageResponse> executeRequest() {
         try {
-            List unitsOfCourse = Base.firstColumn(AJEntityUnit.SELECT_UNIT_OF_COURSE, context.courseId(), false);
+            // firstColumn hands back a raw list, copied one by one to keep it
+            // free of unchecked conversion
+            Set<Object> unitsOfCourse = new HashSet<>();
+            for (Object unitId : Base.firstColumn(AJEntityUnit.SELECT_UNIT_OF_COURSE, context.courseUuid(), false)) {
+                unitsOfCourse.add(unitId);
+            }
             JsonArray input = this.context.request().getJsonArray(REORDER_PAYLOAD_KEY);
 
             if (unitsOfCourse.size() != input.size()) {
@@ -97,36 +108,29 @@ public class ReorderUnitInCourseHandler implements DBHandler {
             }
 
             PreparedStatement ps = Base.startBatch(AJEntityUnit.REORDER_QUERY);
+            int maxSequenceId = 0;
 
             for (Object entry : input) {
-                String payloadUnitId = ((JsonObject) entry).getString(REORDER_PAYLOAD_ID);
-                if (!unitsOfCourse.contains(UUID.fromString(payloadUnitId))) {
+                UUID payloadUnitId = UuidUtils.parse(((JsonObject) entry).getString(REORDER_PAYLOAD_ID));
+                if (!unitsOfCourse.contains(payloadUnitId)) {
                     return new ExecutionResult<>(MessageResponseFactory.createInvalidRequestResponse("Missing unit(s)"),
                         ExecutionResult.ExecutionStatus.FAILED);
                 }
 
                 int sequenceId = ((JsonObject) entry).getInteger(AJEntityUnit.SEQUENCE_ID);
-                Base.addBatch(ps, sequenceId, this.context.userId(), payloadUnitId, context.courseId(), false);
+                Base.addBatch(ps, sequenceId, context.userUuid(), payloadUnitId, context.courseUuid(), false);
+                maxSequenceId = Math.max(maxSequenceId, sequenceId);
             }
 
             Base.executeBatch(ps);
+            SequenceIdAllocator.raiseUnitCounter(context.courseId(), maxSequenceId);
 
-            AJEntityCourse courseToUpdate = new AJEntityCourse();
-            courseToUpdate.setCourseId(context.courseId());
-            courseToUpdate.setTimestamp(AJEntityCourse.UPDATED_AT, new Timestamp(System.currentTimeMillis()));
-            boolean result = courseToUpdate.save();
-            if (!result) {
-                LOGGER.error("Course with id '{}' failed to save modified time stamp", context.courseId());
-                if (courseToUpdate.hasErrors()) {
-                    Map<String, String> map = courseToUpdate.errors();
-                    JsonObject errors = new JsonObject();
-                    map.forEach(errors::put);
-                    return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(errors),
-                        ExecutionStatus.FAILED);
-                }
-            }
+            CourseTouchCoalescer.getInstance().touch(context.courseId());
 
         } catch (DBException | ClassCastException e) {
+            if (RetryableFailures.isRetryable(e)) {
+                throw e;
+            }
             LOGGER.error("incorrect payload data type", e);
             return new ExecutionResult<>(
                 MessageResponseFactory.createInvalidRequestResponse("Incorrect payload data types"),
@@ -142,6 +146,11 @@ public class ReorderUnitInCourseHandler implements DBHandler {
         return false;
     }
 
+    @Override
+    public Collection<String> coursesToLock() {
+        return Collections.singletonList(context.courseId());
+    }
+
     private boolean reorderPayloadValidator(Object value) {
         if (!(value instanceof JsonArray) || value == null || ((JsonArray) value).isEmpty()) {
             return false;
@@ -161,10 +170,11 @@ public class ReorderUnitInCourseHandler implements DBHandler {
                 if (sequence == null) {
                     return false;
                 }
-                String idString = entry.getString(REORDER_PAYLOAD_ID);
-                UUID id = UUID.fromString(idString);
+                if (!UuidUtils.isValid(entry.getString(REORDER_PAYLOAD_ID))) {
+                    return false;
+                }
                 sequences.add(sequence);
-            } catch (ClassCastException | IllegalArgumentException e) {
+            } catch (ClassCastException e) {
                 return false;
             }
         }
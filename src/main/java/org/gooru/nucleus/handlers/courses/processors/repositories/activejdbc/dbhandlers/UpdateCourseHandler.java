@@ -3,6 +3,7 @@ package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.db
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.SequenceIdAllocator;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
@@ -83,33 +84,25 @@ public class UpdateCourseHandler implements DBHandler {
         courseToUpdate.setCourseId(context.courseId());
         courseToUpdate.setModifierId(context.userId());
 
-        Object maxSequenceId = null;
-        int sequenceId = 1;
+        boolean bucketChanged;
         Object objSubjectBucket = Base.firstCell(AJEntityCourse.SELECT_SUBJECT_BUCKET, context.courseId());
         String subjectBucketFromPaylaod = courseToUpdate.getString(AJEntityCourse.SUBJECT_BUCKET);
         // User is trying to update subject bucket to different subject
         if (subjectBucketFromPaylaod != null && !subjectBucketFromPaylaod.isEmpty()) {
             if (objSubjectBucket != null) {
                 String subjectBucket = objSubjectBucket.toString();
-                if (!subjectBucketFromPaylaod.equalsIgnoreCase(subjectBucket)) {
-                    maxSequenceId = Base.firstCell(AJEntityCourse.SELECT_MAX_SEQUENCE_FOR_SUBJECT_BUCKET,
-                        context.userId(), subjectBucketFromPaylaod);
-                }
+                bucketChanged = !subjectBucketFromPaylaod.equalsIgnoreCase(subjectBucket);
             } else {
-                maxSequenceId = Base.firstCell(AJEntityCourse.SELECT_MAX_SEQUENCE_FOR_SUBJECT_BUCKET, context.userId(),
-                    subjectBucketFromPaylaod);
+                bucketChanged = true;
             }
         } else {
             // User is trying to update subject bucket to null
-            if (objSubjectBucket != null) {
-                maxSequenceId =
-                    Base.firstCell(AJEntityCourse.SELECT_MAX_SEQUENCE_FOR_NON_SUBJECT_BUCKET, context.userId());
-            }
+            bucketChanged = objSubjectBucket != null;
         }
 
-        if (maxSequenceId != null) {
-            sequenceId = Integer.valueOf(maxSequenceId.toString()) + 1;
-            courseToUpdate.setInteger(AJEntityCourse.SEQUENCE_ID, sequenceId);
+        if (bucketChanged) {
+            courseToUpdate.setInteger(AJEntityCourse.SEQUENCE_ID,
+                SequenceIdAllocator.nextCourseSequenceId(context.userId(), subjectBucketFromPaylaod));
         }
 
         if (courseToUpdate.hasErrors()) {
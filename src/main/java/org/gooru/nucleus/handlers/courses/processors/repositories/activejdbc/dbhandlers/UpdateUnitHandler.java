@@ -1,5 +1,8 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.ProcessorContext;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilderFactory;
@@ -9,17 +12,18 @@ import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult.ExecutionStatus;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
+import org.javalite.activejdbc.Base;
 import org.javalite.activejdbc.LazyList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 public class UpdateUnitHandler implements DBHandler {
 
     private final ProcessorContext context;
     private static final Logger LOGGER = LoggerFactory.getLogger(UpdateUnitHandler.class);
-    private AJEntityUnit unitToUpdate;
 
     public UpdateUnitHandler(ProcessorContext context) {
         this.context = context;
@@ -72,53 +76,34 @@ public class UpdateUnitHandler implements DBHandler {
 
     @Override
     public ExecutionResult<MessageResponse> validateRequest() {
-
-        LazyList<AJEntityCourse> ajEntityCourse = AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE_TO_AUTHORIZE,
-            context.courseId(), false, context.userId(), context.userId());
-        if (ajEntityCourse.isEmpty()) {
-            LOGGER.warn("user is not owner or collaborator of course to create unit. aborting");
-            return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
-        }
-
-        LazyList<AJEntityUnit> ajEntityUnit =
-            AJEntityUnit.findBySQL(AJEntityUnit.SELECT_UNIT_TO_VALIDATE, context.unitId(), context.courseId(), false);
-        if (ajEntityUnit.isEmpty()) {
-            LOGGER.warn("Unit {} not found, aborting", context.unitId());
-            return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse(), ExecutionStatus.FAILED);
-        }
-
+        // Authorization and existence are checked by the update itself
         return new ExecutionResult<>(null, ExecutionStatus.CONTINUE_PROCESSING);
     }
 
     @Override
     public ExecutionResult<MessageResponse> executeRequest() {
-        unitToUpdate = new AJEntityUnit();
-        unitToUpdate.setAllFromJson(context.request());
-        unitToUpdate.setUnitId(context.unitId());
-        unitToUpdate.setModifierId(context.userId());
-
-        if (unitToUpdate.hasErrors()) {
-            LOGGER.warn("updating unit has errors");
-            return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(getModelErrors()),
-                ExecutionStatus.FAILED);
+        JsonObject request = context.request();
+        List<Object> params = new ArrayList<>();
+        for (String field : AJEntityUnit.UPDATABLE_FIELDS) {
+            Object value = request.getValue(field);
+            params.add(request.containsKey(field));
+            params.add(value instanceof JsonObject || value instanceof JsonArray ? value.toString() : value);
         }
-
-        if (unitToUpdate.isValid()) {
-            if (unitToUpdate.save()) {
-                LOGGER.info("unit {} updated successfully", context.unitId());
-                return new ExecutionResult<>(MessageResponseFactory.createNoContentResponse(
-                    EventBuilderFactory.getUpdateUnitEventBuilder(context.unitId())), ExecutionStatus.SUCCESSFUL);
-            } else {
-                LOGGER.error("error while saving udpated unit");
-                return new ExecutionResult<>(
-                    MessageResponseFactory.createInternalErrorResponse("Error while updating unit"),
-                    ExecutionStatus.FAILED);
-            }
-        } else {
-            LOGGER.warn("validation error while updating unit");
-            return new ExecutionResult<>(MessageResponseFactory.createValidationErrorResponse(getModelErrors()),
-                ExecutionStatus.FAILED);
+        params.add(context.userId());
+        params.add(context.unitId());
+        params.add(context.courseId());
+        params.add(context.userId());
+        params.add(context.userId());
+
+        int updated = Base.exec(AJEntityUnit.UPDATE_UNIT_IF_AUTHORIZED, params.toArray());
+        if (updated == 0) {
+            return diagnoseFailedUpdate();
         }
+
+        LOGGER.info("unit {} updated successfully", context.unitId());
+        return new ExecutionResult<>(
+            MessageResponseFactory.createNoContentResponse(EventBuilderFactory.getUpdateUnitEventBuilder(context.unitId())),
+            ExecutionStatus.SUCCESSFUL);
     }
 
     @Override
@@ -144,9 +129,19 @@ public class UpdateUnitHandler implements DBHandler {
         return output.isEmpty() ? null : output;
     }
 
-    private JsonObject getModelErrors() {
-        JsonObject errors = new JsonObject();
-        this.unitToUpdate.errors().entrySet().forEach(entry -> errors.put(entry.getKey(), entry.getValue()));
-        return errors;
+    /*
+     * Update did not happen, so find out why. This is off the happy path hence
+     * the extra queries here do not matter.
+     */
+    private ExecutionResult<MessageResponse> diagnoseFailedUpdate() {
+        LazyList<AJEntityCourse> ajEntityCourse = AJEntityCourse.findBySQL(AJEntityCourse.SELECT_COURSE_TO_AUTHORIZE,
+            context.courseId(), false, context.userId(), context.userId());
+        if (ajEntityCourse.isEmpty()) {
+            LOGGER.warn("user is not owner or collaborator of course to update unit. aborting");
+            return new ExecutionResult<>(MessageResponseFactory.createForbiddenResponse(), ExecutionStatus.FAILED);
+        }
+
+        LOGGER.warn("Unit {} not found, aborting", context.unitId());
+        return new ExecutionResult<>(MessageResponseFactory.createNotFoundResponse(), ExecutionStatus.FAILED);
     }
 }
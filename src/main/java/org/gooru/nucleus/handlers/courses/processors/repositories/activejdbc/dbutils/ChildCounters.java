@@ -0,0 +1,27 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils;
+
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
+import org.javalite.activejdbc.Base;
+
+/**
+ * Maintains the denormalized lesson count of unit which is read by fetch
+ * handlers instead of aggregating lessons on every read.
+ * <p>
+ * Adjustments are done in the transaction of the mutation, so they commit or
+ * roll back along with it. Lessons are only created, deleted and moved by this
+ * module, collections and content are also changed by other modules so their
+ * counts are aggregated on fetch instead. Any drift of lesson count is repaired
+ * by ChildCountReconciler.
+ */
+public final class ChildCounters {
+
+    private ChildCounters() {
+        throw new AssertionError();
+    }
+
+    public static void adjustLessonCount(String unitId, int delta) {
+        if (unitId != null) {
+            Base.exec(AJEntityUnit.UPDATE_LESSON_COUNT, delta, unitId);
+        }
+    }
+}
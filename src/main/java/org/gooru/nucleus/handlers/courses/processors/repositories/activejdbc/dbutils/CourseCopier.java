@@ -0,0 +1,109 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils;
+
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
+import org.javalite.activejdbc.Base;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies a course along with its units, lessons, collections and content
+ * inside the database, with one INSERT ... SELECT per level.
+ * <p>
+ * New ids are generated up front into a temporary table mapping old ids to new
+ * ones, which is dropped when the transaction ends. Each level is then copied
+ * by joining with the mapping for its own id and the ids of its parents. Rows
+ * are copied through jsonb_populate_record(to_jsonb(row) || overrides), so all
+ * columns are carried over, including the ones of collection and content which
+ * are owned by other modules, and only the listed ones are overridden. Copies
+ * are owned by the copying user, remember the original item and creator, and
+ * the course starts unpublished and without collaborators. Deleted items are
+ * not copied.
+ * <p>
+ * Needs to be called with a connection and a transaction already open on the
+ * current thread
+ */
+public final class CourseCopier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CourseCopier.class);
+
+    private static final String NEW_ID = "md5(random()::text || clock_timestamp()::text)::uuid";
+    private static final String COMMON_OVERRIDES =
+        "'owner_id', ?::uuid, 'creator_id', ?::uuid, 'modifier_id', ?::uuid, 'created_at', now(), 'updated_at', now()";
+
+    private static final String CREATE_ID_MAP =
+        "CREATE TEMP TABLE course_copy_map (old_id uuid PRIMARY KEY, new_id uuid NOT NULL) ON COMMIT DROP";
+    private static final String MAP_COURSE = "INSERT INTO course_copy_map (old_id, new_id) VALUES (?::uuid, ?::uuid)";
+    private static final String MAP_UNITS = "INSERT INTO course_copy_map (old_id, new_id) SELECT unit_id, " + NEW_ID
+        + " FROM unit WHERE course_id = ?::uuid AND is_deleted = false";
+    private static final String MAP_LESSONS = "INSERT INTO course_copy_map (old_id, new_id) SELECT l.lesson_id, "
+        + NEW_ID + " FROM lesson l JOIN course_copy_map mu ON mu.old_id = l.unit_id WHERE l.course_id = ?::uuid"
+        + " AND l.is_deleted = false";
+    private static final String MAP_COLLECTIONS = "INSERT INTO course_copy_map (old_id, new_id) SELECT co.id, "
+        + NEW_ID + " FROM collection co JOIN course_copy_map ml ON ml.old_id = co.lesson_id WHERE co.course_id ="
+        + " ?::uuid AND co.is_deleted = false";
+    private static final String MAP_CONTENT = "INSERT INTO course_copy_map (old_id, new_id) SELECT ct.id, " + NEW_ID
+        + " FROM content ct JOIN course_copy_map mc ON mc.old_id = ct.collection_id WHERE ct.course_id = ?::uuid"
+        + " AND ct.is_deleted = false";
+
+    private static final String COPY_COURSE = "INSERT INTO course SELECT (jsonb_populate_record(NULL::course,"
+        + " to_jsonb(c) || jsonb_build_object('id', m.new_id, 'original_creator_id', COALESCE(c.original_creator_id,"
+        + " c.creator_id), 'original_course_id', COALESCE(c.original_course_id, c.id), 'publish_status', 'unpublished',"
+        + " 'publish_date', NULL, 'collaborator', NULL, 'sequence_id', ?, " + COMMON_OVERRIDES + "))).* FROM course c"
+        + " JOIN course_copy_map m ON m.old_id = c.id WHERE c.id = ?::uuid";
+    private static final String COPY_UNITS = "INSERT INTO unit SELECT (jsonb_populate_record(NULL::unit,"
+        + " to_jsonb(u) || jsonb_build_object('unit_id', m.new_id, 'course_id', ?::uuid, 'original_creator_id',"
+        + " COALESCE(u.original_creator_id, u.creator_id), 'original_unit_id',"
+        + " COALESCE(u.original_unit_id, u.unit_id), " + COMMON_OVERRIDES + "))).* FROM unit u JOIN course_copy_map m"
+        + " ON m.old_id = u.unit_id WHERE u.course_id = ?::uuid";
+    private static final String COPY_LESSONS = "INSERT INTO lesson SELECT (jsonb_populate_record(NULL::lesson,"
+        + " to_jsonb(l) || jsonb_build_object('lesson_id', m.new_id, 'unit_id', mu.new_id, 'course_id', ?::uuid,"
+        + " 'original_creator_id', COALESCE(l.original_creator_id, l.creator_id), 'original_lesson_id',"
+        + " COALESCE(l.original_lesson_id, l.lesson_id), " + COMMON_OVERRIDES + "))).* FROM lesson l JOIN"
+        + " course_copy_map m ON m.old_id = l.lesson_id JOIN course_copy_map mu ON mu.old_id = l.unit_id WHERE"
+        + " l.course_id = ?::uuid";
+    // Collection and content columns are not known here, so original ones are
+    // read from the row JSON and are ignored if the table does not have them
+    private static final String COPY_COLLECTIONS = "INSERT INTO collection SELECT (jsonb_populate_record("
+        + "NULL::collection, to_jsonb(co) || jsonb_build_object('id', m.new_id, 'lesson_id', ml.new_id, 'unit_id',"
+        + " mu.new_id, 'course_id', ?::uuid, 'collaborator', NULL, 'original_creator_id', COALESCE(to_jsonb(co) ->>"
+        + " 'original_creator_id', to_jsonb(co) ->> 'creator_id'), 'original_collection_id', COALESCE(to_jsonb(co) ->>"
+        + " 'original_collection_id', co.id::text), " + COMMON_OVERRIDES + "))).* FROM collection co JOIN"
+        + " course_copy_map m ON m.old_id = co.id JOIN course_copy_map ml ON ml.old_id = co.lesson_id JOIN"
+        + " course_copy_map mu ON mu.old_id = co.unit_id WHERE co.course_id = ?::uuid";
+    private static final String COPY_CONTENT = "INSERT INTO content SELECT (jsonb_populate_record(NULL::content,"
+        + " to_jsonb(ct) || jsonb_build_object('id', m.new_id, 'collection_id', mc.new_id, 'lesson_id', ml.new_id,"
+        + " 'unit_id', mu.new_id, 'course_id', ?::uuid, 'original_creator_id', COALESCE(to_jsonb(ct) ->>"
+        + " 'original_creator_id', to_jsonb(ct) ->> 'creator_id'), 'original_content_id', COALESCE(to_jsonb(ct) ->>"
+        + " 'original_content_id', ct.id::text), " + COMMON_OVERRIDES + "))).* FROM content ct JOIN course_copy_map m"
+        + " ON m.old_id = ct.id JOIN course_copy_map mc ON mc.old_id = ct.collection_id JOIN course_copy_map ml ON"
+        + " ml.old_id = ct.lesson_id JOIN course_copy_map mu ON mu.old_id = ct.unit_id WHERE ct.course_id = ?::uuid";
+
+    private CourseCopier() {
+        throw new AssertionError();
+    }
+
+    /*
+     * Copies the source course as new course with given id. New course is
+     * placed at the end of courses of the user in the same subject bucket
+     */
+    public static void copy(String sourceCourseId, String newCourseId, String userId) {
+        Object subjectBucket = Base.firstCell(AJEntityCourse.SELECT_SUBJECT_BUCKET, sourceCourseId);
+        int sequenceId =
+            SequenceIdAllocator.nextCourseSequenceId(userId, subjectBucket != null ? subjectBucket.toString() : null);
+
+        Base.exec(CREATE_ID_MAP);
+        Base.exec(MAP_COURSE, sourceCourseId, newCourseId);
+        Base.exec(MAP_UNITS, sourceCourseId);
+        Base.exec(MAP_LESSONS, sourceCourseId);
+        Base.exec(MAP_COLLECTIONS, sourceCourseId);
+        Base.exec(MAP_CONTENT, sourceCourseId);
+
+        Base.exec(COPY_COURSE, sequenceId, userId, userId, userId, sourceCourseId);
+        int units = Base.exec(COPY_UNITS, newCourseId, userId, userId, userId, sourceCourseId);
+        int lessons = Base.exec(COPY_LESSONS, newCourseId, userId, userId, userId, sourceCourseId);
+        int collections = Base.exec(COPY_COLLECTIONS, newCourseId, userId, userId, userId, sourceCourseId);
+        int content = Base.exec(COPY_CONTENT, newCourseId, userId, userId, userId, sourceCourseId);
+        LOGGER.info("copied course {} as {} with {} units, {} lessons, {} collections and {} content", sourceCourseId,
+            newCourseId, units, lessons, collections, content);
+    }
+}
@@ -0,0 +1,90 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.javalite.activejdbc.Base;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Serializes structural changes per course with transaction scoped advisory
+ * locks.
+ * <p>
+ * Handlers which move or reorder children name the courses they are going to
+ * modify and TransactionExecutor takes the locks before handler touches any
+ * row. Locks are always taken in ascending order of their keys, so two moves
+ * between the same pair of courses queue up behind each other instead of
+ * deadlocking, whatever the direction of move. Locks are released with the
+ * transaction.
+ * <p>
+ * Time spent waiting for locks is tracked and can be read with metrics().
+ */
+public final class CourseLocks {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CourseLocks.class);
+    private static final String ACQUIRE_LOCK = "SELECT pg_advisory_xact_lock(?)";
+    private static final long SLOW_WAIT_MS = 1000;
+
+    private static final LongAdder ACQUIRED = new LongAdder();
+    private static final LongAdder WAIT_NANOS = new LongAdder();
+    private static final LongAccumulator MAX_WAIT_NANOS = new LongAccumulator(Long::max, 0);
+
+    private CourseLocks() {
+        throw new AssertionError();
+    }
+
+    public static void lock(Collection<String> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return;
+        }
+        TreeSet<Long> keys = new TreeSet<>();
+        for (String courseId : courseIds) {
+            Long key = lockKey(courseId);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        long start = System.nanoTime();
+        for (Long key : keys) {
+            Base.firstCell(ACQUIRE_LOCK, key);
+        }
+        long waited = System.nanoTime() - start;
+        ACQUIRED.add(keys.size());
+        WAIT_NANOS.add(waited);
+        MAX_WAIT_NANOS.accumulate(waited);
+        if (TimeUnit.NANOSECONDS.toMillis(waited) >= SLOW_WAIT_MS) {
+            LOGGER.warn("waited {} ms for locks on courses {}", TimeUnit.NANOSECONDS.toMillis(waited), courseIds);
+        }
+    }
+
+    public static JsonObject metrics() {
+        return new JsonObject().put("acquired", ACQUIRED.sum())
+            .put("total_wait_ms", TimeUnit.NANOSECONDS.toMillis(WAIT_NANOS.sum()))
+            .put("max_wait_ms", TimeUnit.NANOSECONDS.toMillis(MAX_WAIT_NANOS.get()));
+    }
+
+    /*
+     * Advisory locks are keyed on bigint, so uuid is folded in to it. Collision
+     * only means two courses share a lock, which is harmless. Invalid ids are
+     * not locked, the handler will fail on them anyway.
+     */
+    private static Long lockKey(String courseId) {
+        if (courseId == null) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(courseId);
+            return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("not locking invalid course id '{}'", courseId);
+            return null;
+        }
+    }
+}
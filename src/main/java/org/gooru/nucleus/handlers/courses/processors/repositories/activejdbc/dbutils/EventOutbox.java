@@ -0,0 +1,50 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils;
+
+import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
+import org.javalite.activejdbc.Base;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Events of mutations, written in the transaction of the mutation so that
+ * they are committed or rolled back along with it, and later sent on event bus
+ * by EventOutboxRelay. Table is expected to be:
+ *
+ * <pre>
+ * CREATE TABLE course_event_outbox (
+ *     id bigserial PRIMARY KEY,
+ *     event jsonb NOT NULL,
+ *     created_at timestamp with time zone NOT NULL DEFAULT now()
+ * );
+ * </pre>
+ *
+ * Rows are claimed with SKIP LOCKED, so that relays of different nodes drain
+ * different rows, and are deleted once sent. Events are sent at least once, a
+ * relay failing after send and before commit sends the batch again.
+ */
+public final class EventOutbox {
+
+    public static final String ID = "id";
+    public static final String EVENT = "event";
+
+    private static final String INSERT_EVENT = "INSERT INTO course_event_outbox (event) VALUES (?::jsonb)";
+    public static final String SELECT_EVENTS_TO_RELAY =
+        "SELECT id, event FROM course_event_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    public static final String DELETE_RELAYED_EVENTS = "DELETE FROM course_event_outbox WHERE id = ANY(?::bigint[])";
+
+    private EventOutbox() {
+        throw new AssertionError();
+    }
+
+    /*
+     * Needs to be called in an open transaction. Session token, when present,
+     * goes along with event the way it does when event is sent right away.
+     */
+    public static void append(JsonObject event, String sessionToken) {
+        JsonObject row = event;
+        if (sessionToken != null && !sessionToken.isEmpty()) {
+            row = event.copy().put(MessageConstants.MSG_HEADER_TOKEN, sessionToken);
+        }
+        Base.exec(INSERT_EVENT, row.encode());
+    }
+}
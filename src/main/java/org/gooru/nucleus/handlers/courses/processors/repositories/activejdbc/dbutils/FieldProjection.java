@@ -0,0 +1,106 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.monitoring.StatementNames;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Fields asked for by a fetch, so that only those columns are selected and
+ * formatted, and summaries of children are looked up only if asked for. Fields
+ * come in as repeated or comma separated "fields" request parameter. Without
+ * it, every field is returned as before.
+ * <p>
+ * Fields are checked against the fields of entity before they go in the
+ * column list of query. Id of entity is always returned so that response can
+ * be correlated.
+ */
+public final class FieldProjection {
+
+    private final List<String> fields;
+    private final Set<String> extras;
+    private final boolean all;
+
+    private FieldProjection(List<String> fields, Set<String> extras, boolean all) {
+        this.fields = fields;
+        this.extras = extras;
+        this.all = all;
+    }
+
+    /*
+     * Extras are fields which are not columns of entity, like summaries of
+     * children. Returns null if fields parameter is neither a string nor an
+     * array, or if any of the fields asked for is unknown.
+     */
+    public static FieldProjection of(JsonObject request, String idField, List<String> allFields, String... extras) {
+        Object value = request == null ? null : request.getValue(MessageConstants.FIELDS);
+        JsonArray requestParams;
+        if (value == null || value instanceof JsonArray) {
+            requestParams = (JsonArray) value;
+        } else if (value instanceof String) {
+            // Single parameter may come in as plain string instead of an array
+            requestParams = new JsonArray().add(value);
+        } else {
+            return null;
+        }
+        if (requestParams == null || requestParams.isEmpty()) {
+            return new FieldProjection(allFields, new HashSet<>(Arrays.asList(extras)), true);
+        }
+
+        Set<String> knownExtras = new HashSet<>(Arrays.asList(extras));
+        Set<String> columns = new LinkedHashSet<>();
+        Set<String> askedExtras = new HashSet<>();
+        columns.add(idField);
+        for (Object element : requestParams) {
+            if (!(element instanceof String)) {
+                return null;
+            }
+            for (String field : ((String) element).split(",")) {
+                String trimmed = field.trim().toLowerCase();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if (allFields.contains(trimmed)) {
+                    columns.add(trimmed);
+                } else if (knownExtras.contains(trimmed)) {
+                    askedExtras.add(trimmed);
+                } else {
+                    return null;
+                }
+            }
+        }
+        return new FieldProjection(Collections.unmodifiableList(new ArrayList<>(columns)), askedExtras, false);
+    }
+
+    // Columns to select and format, in the order of entity fields when all
+    public List<String> fields() {
+        return this.fields;
+    }
+
+    public boolean includes(String extra) {
+        return this.extras.contains(extra);
+    }
+
+    /*
+     * Query selecting every field is used as is, otherwise selected columns
+     * are filled in the query with a %s placeholder for them. Filled query is
+     * named after the constant it is made from, for query monitoring
+     */
+    public String query(String selectAll, String selectFields) {
+        if (this.all) {
+            return selectAll;
+        }
+        String query = String.format(selectFields, String.join(", ", this.fields));
+        StatementNames.registerDerived(query, selectFields);
+        return query;
+    }
+}
@@ -0,0 +1,115 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.javalite.activejdbc.Base;
+
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Builds and runs a single INSERT with one VALUES tuple per row, returning the
+ * requested columns of all inserted rows.
+ * <p>
+ * Columns which a row does not carry are inserted as DEFAULT, the same as when
+ * the row is saved on its own. Values of uuid columns are cast from their
+ * string form and values of jsonb columns are sent as encoded JSON. Postgres
+ * does not guarantee the order of returned rows, executeForIds() orders them by
+ * a column which tells the rows apart.
+ */
+public final class MultiRowInsert {
+
+    private final String table;
+    private final List<String> columns;
+    private final Collection<String> uuidColumns;
+    private final Collection<String> jsonColumns;
+    private final StringBuilder values = new StringBuilder();
+    private final List<Object> params = new ArrayList<>();
+    private int rowCount = 0;
+
+    public MultiRowInsert(String table, List<String> columns, Collection<String> uuidColumns,
+        Collection<String> jsonColumns) {
+        this.table = table;
+        this.columns = columns;
+        this.uuidColumns = uuidColumns;
+        this.jsonColumns = jsonColumns;
+    }
+
+    public MultiRowInsert addRow(Map<String, Object> row) {
+        values.append(rowCount == 0 ? "(" : ", (");
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i);
+            if (i > 0) {
+                values.append(", ");
+            }
+            if (!row.containsKey(column)) {
+                values.append("DEFAULT");
+                continue;
+            }
+            Object value = row.get(column);
+            if (uuidColumns.contains(column)) {
+                values.append("?::uuid");
+                params.add(value == null ? null : value.toString());
+            } else if (jsonColumns.contains(column)) {
+                values.append("?::jsonb");
+                params.add(toJsonString(value));
+            } else {
+                values.append('?');
+                params.add(value);
+            }
+        }
+        values.append(')');
+        rowCount++;
+        return this;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    @SuppressWarnings("rawtypes")
+    public List<Map> execute(String returning) {
+        if (rowCount == 0) {
+            throw new IllegalStateException("No rows to insert into " + table);
+        }
+        String query = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES " + values
+            + " RETURNING " + returning;
+        return Base.findAll(query, params.toArray());
+    }
+
+    /*
+     * Returns the ids of inserted rows ordered by given numeric column, e.g.
+     * the sequence id
+     */
+    @SuppressWarnings("rawtypes")
+    public List<String> executeForIds(String idColumn, String orderColumn) {
+        List<Map> rows = execute(idColumn + ", " + orderColumn);
+        rows.sort(Comparator.comparingLong(row -> Long.parseLong(row.get(orderColumn).toString())));
+        List<String> ids = new ArrayList<>(rows.size());
+        rows.forEach(row -> ids.add(row.get(idColumn).toString()));
+        return ids;
+    }
+
+    private static String toJsonString(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof JsonObject) {
+            return ((JsonObject) value).encode();
+        }
+        if (value instanceof JsonArray) {
+            return ((JsonArray) value).encode();
+        }
+        // Rows built from getMap() hold plain maps and lists for nested JSON
+        // once the message has been through the clustered event bus
+        if (value instanceof Map || value instanceof List) {
+            return Json.encode(value);
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Recognizes the failures which are transient and go away when transaction is
+ * run again: serialization failure, deadlock and lock not available.
+ * <p>
+ * TransactionExecutor retries transactions failing with these. Handlers which
+ * catch DB exceptions to turn them into responses should let these through.
+ */
+public final class RetryableFailures {
+
+    private static final List<String> RETRYABLE_SQL_STATES = Arrays.asList("40001", "40P01", "55P03");
+
+    private RetryableFailures() {
+        throw new AssertionError();
+    }
+
+    public static boolean isRetryable(Throwable throwable) {
+        Throwable current = throwable;
+        while (current != null) {
+            if (current instanceof SQLException) {
+                SQLException sqlException = (SQLException) current;
+                while (sqlException != null) {
+                    if (RETRYABLE_SQL_STATES.contains(sqlException.getSQLState())) {
+                        return true;
+                    }
+                    sqlException = sqlException.getNextException();
+                }
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,147 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils;
+
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCollection;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityLesson;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
+import org.javalite.activejdbc.Base;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands out sequence ids for children of a parent (course bucket of an owner,
+ * course or unit) from a counter row per parent in the sequence_counter table.
+ * <p>
+ * The counter row is bumped with a single UPDATE ... RETURNING, so allocation
+ * does not scan siblings and the row lock serializes concurrent allocations for
+ * the same parent till the surrounding transaction ends. The counter row is
+ * seeded lazily from the current max(sequence_id) of the parent on first use.
+ * Allocated ids are never reused, so deletes may leave gaps which do not matter
+ * for ordering. Reorders take sequence ids from the client, so reorder handlers
+ * raise the counter to the largest id they wrote. Courses, units and lessons
+ * are written only by this module, any other writer of their sequence ids,
+ * e.g. a data fix, has to raise the counter as well or ids may collide. Subject
+ * buckets are matched ignoring case, as UpdateCourseHandler does.
+ * <p>
+ * Collections are also created by another module which computes
+ * max(sequence_id) + 1 and does not know about any counter, so they are not
+ * counted. Their ids are max(sequence_id) + 1 of the lesson as before, which
+ * is serialized against writers of this module by the course lock only. A
+ * collection created by the other module at the same time may still get the
+ * same sequence id, as it always could.
+ * <p>
+ * Needs to be called with a connection and a transaction already open on the
+ * current thread, which is the case for DBHandlers run by TransactionExecutor
+ */
+public final class SequenceIdAllocator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SequenceIdAllocator.class);
+
+    private static final String BUMP_COUNTER =
+        "UPDATE sequence_counter SET last_sequence_id = last_sequence_id + ? WHERE parent_key = ?"
+            + " RETURNING last_sequence_id";
+    private static final String RAISE_COUNTER =
+        "UPDATE sequence_counter SET last_sequence_id = GREATEST(last_sequence_id, ?) WHERE parent_key = ?";
+    private static final String SEED_COUNTER_PREFIX =
+        "INSERT INTO sequence_counter (parent_key, last_sequence_id) VALUES (?, COALESCE((";
+    private static final String SEED_COUNTER_SUFFIX =
+        "), 0) + ?) ON CONFLICT (parent_key) DO UPDATE SET last_sequence_id = sequence_counter.last_sequence_id + ?"
+            + " RETURNING last_sequence_id";
+
+    private static final String KEY_COURSE = "course:";
+    private static final String KEY_UNIT = "unit:";
+    private static final String KEY_LESSON = "lesson:";
+    private static final String KEY_SEPARATOR = ":";
+
+    private SequenceIdAllocator() {
+        throw new AssertionError();
+    }
+
+    public static int nextCourseSequenceId(String ownerId, String subjectBucket) {
+        return allocateCourseSequenceIds(ownerId, subjectBucket, 1);
+    }
+
+    public static int nextUnitSequenceId(String courseId) {
+        return allocateUnitSequenceIds(courseId, 1);
+    }
+
+    public static int nextLessonSequenceId(String courseId, String unitId) {
+        return allocateLessonSequenceIds(courseId, unitId, 1);
+    }
+
+    public static int nextCollectionSequenceId(String lessonId) {
+        return allocateCollectionSequenceIds(lessonId, 1);
+    }
+
+    /*
+     * The allocate* variants reserve count contiguous sequence ids and return
+     * the first one of the block
+     */
+    public static int allocateCourseSequenceIds(String ownerId, String subjectBucket, int count) {
+        if (subjectBucket != null && !subjectBucket.isEmpty()) {
+            String bucket = subjectBucket.toLowerCase();
+            return allocate(courseKey(ownerId, bucket), count, AJEntityCourse.SELECT_MAX_SEQUENCE_FOR_SUBJECT_BUCKET,
+                ownerId, bucket);
+        }
+        return allocate(courseKey(ownerId, null), count, AJEntityCourse.SELECT_MAX_SEQUENCE_FOR_NON_SUBJECT_BUCKET,
+            ownerId);
+    }
+
+    public static int allocateUnitSequenceIds(String courseId, int count) {
+        return allocate(KEY_UNIT + courseId, count, AJEntityUnit.SELECT_UNIT_MAX_SEQUENCEID, courseId);
+    }
+
+    public static int allocateLessonSequenceIds(String courseId, String unitId, int count) {
+        return allocate(KEY_LESSON + unitId, count, AJEntityLesson.SELECT_LESSON_MAX_SEQUENCEID, courseId, unitId);
+    }
+
+    // Not counted, see class comment
+    public static int allocateCollectionSequenceIds(String lessonId, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Sequence id count should be positive");
+        }
+        Object max = Base.firstCell(AJEntityCollection.SELECT_COLLECTION_MAX_SEQUENCEID, lessonId);
+        return max == null ? 1 : Integer.valueOf(max.toString()) + 1;
+    }
+
+    /*
+     * The raise* variants are called by reorders with the largest sequence id
+     * they wrote, so that later allocations do not collide with it. Counter
+     * which is not seeded yet is left alone, it is seeded from siblings anyway.
+     */
+    public static void raiseCourseCounter(String ownerId, String subjectBucket, int sequenceId) {
+        String bucket = subjectBucket != null && !subjectBucket.isEmpty() ? subjectBucket.toLowerCase() : null;
+        Base.exec(RAISE_COUNTER, sequenceId, courseKey(ownerId, bucket));
+    }
+
+    public static void raiseUnitCounter(String courseId, int sequenceId) {
+        Base.exec(RAISE_COUNTER, sequenceId, KEY_UNIT + courseId);
+    }
+
+    public static void raiseLessonCounter(String unitId, int sequenceId) {
+        Base.exec(RAISE_COUNTER, sequenceId, KEY_LESSON + unitId);
+    }
+
+    private static String courseKey(String ownerId, String bucket) {
+        return bucket == null ? KEY_COURSE + ownerId : KEY_COURSE + ownerId + KEY_SEPARATOR + bucket;
+    }
+
+    private static int allocate(String parentKey, int count, String seedQuery, Object... seedParams) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Sequence id count should be positive");
+        }
+        Object last = Base.firstCell(BUMP_COUNTER, count, parentKey);
+        if (last == null) {
+            // First allocation for this parent, seed the counter from the
+            // siblings. Concurrent seeders end up in the conflict clause.
+            LOGGER.debug("seeding sequence counter for '{}'", parentKey);
+            Object[] params = new Object[seedParams.length + 3];
+            params[0] = parentKey;
+            System.arraycopy(seedParams, 0, params, 1, seedParams.length);
+            params[seedParams.length + 1] = count;
+            params[seedParams.length + 2] = count;
+            last = Base.firstCell(SEED_COUNTER_PREFIX + seedQuery + SEED_COUNTER_SUFFIX, params);
+        }
+        return Integer.valueOf(last.toString()) - count + 1;
+    }
+}
@@ -0,0 +1,108 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.javalite.activejdbc.Base;
+import org.javalite.activejdbc.DBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a query with a server side cursor and hands over rows one at a time to
+ * the callback, instead of materializing the whole result like findBySQL,
+ * Base.findAll or Base.find do. ActiveJDBC sets a fetch size only for MySQL,
+ * so on Postgres those load every row into driver memory first.
+ * <p>
+ * Postgres driver only honours the fetch size when connection is not in auto
+ * commit mode. On an auto commit connection, e.g. of read only pool, the query
+ * is run in a transaction of its own which is ended right after, and auto
+ * commit is restored. Inside the transaction opened by TransactionExecutor the
+ * connection is used as is. Rows are handed over as maps keyed by lower cased
+ * column labels, same as Base.findAll. The map is reused across rows, so
+ * callback should not hold on to it.
+ */
+public final class StreamingQuery {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingQuery.class);
+    public static final int DEFAULT_FETCH_SIZE = 100;
+
+    private StreamingQuery() {
+        throw new AssertionError();
+    }
+
+    public static long stream(String query, Consumer<Map<String, Object>> callback, Object... params) {
+        return stream(query, DEFAULT_FETCH_SIZE, callback, params);
+    }
+
+    /*
+     * Returns the number of rows handed over to callback
+     */
+    public static long stream(String query, int fetchSize, Consumer<Map<String, Object>> callback, Object... params) {
+        Connection connection = Base.connection();
+        boolean ownTransaction = false;
+        try {
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                ownTransaction = true;
+            }
+            long rows = streamRows(connection, query, fetchSize, callback, params);
+            if (ownTransaction) {
+                connection.commit();
+            }
+            LOGGER.debug("streamed {} rows", rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new DBException(query, params, e);
+        } finally {
+            if (ownTransaction) {
+                endTransaction(connection);
+            }
+        }
+    }
+
+    private static long streamRows(Connection connection, String query, int fetchSize,
+        Consumer<Map<String, Object>> callback, Object... params) throws SQLException {
+        long rows = 0;
+        try (PreparedStatement ps =
+            connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                String[] labels = new String[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    labels[i] = metaData.getColumnLabel(i + 1).toLowerCase();
+                }
+                Map<String, Object> row = new HashMap<>(columnCount * 2);
+                while (rs.next()) {
+                    for (int i = 0; i < columnCount; i++) {
+                        row.put(labels[i], rs.getObject(i + 1));
+                    }
+                    callback.accept(row);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Rollback is a no-op after commit, it only matters when streaming failed
+    private static void endTransaction(Connection connection) {
+        try {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            LOGGER.warn("not able to restore auto commit of connection after streaming", e);
+        }
+    }
+}
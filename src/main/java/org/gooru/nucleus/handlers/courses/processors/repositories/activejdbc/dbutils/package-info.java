@@ -0,0 +1,8 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils;
+
+/**
+ * This package contains helpers which are shared by DBHandlers for issuing
+ * statements directly against the connection attached to the current thread.
+ * They do not manage connections or transactions themselves and rely on
+ * TransactionExecutor to have set them up
+ */
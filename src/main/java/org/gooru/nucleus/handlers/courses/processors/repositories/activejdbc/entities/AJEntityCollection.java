@@ -37,7 +37,8 @@ public class AJEntityCollection extends Model {
         Arrays.asList(ID, TITLE, FORMAT, SEQUENCE_ID, THUMBNAIL, URL);
 
     public static final String SELECT_COLLECTION_SUMMARY =
-        "SELECT id, title, format, sequence_id, thumbnail, url FROM collection WHERE lesson_id = ?::uuid AND unit_id = ?::uuid AND course_id = ?::uuid AND "
+        "SELECT id, title, format, sequence_id, thumbnail, url FROM collection WHERE lesson_id = ?"
+            + " AND unit_id = ? AND course_id = ? AND "
             + "is_deleted = ? order by sequence_id asc";
     public static final String SELECT_COLLECTION_TO_MOVE =
         "SELECT id, course_id, unit_id, lesson_id, owner_id, collaborator FROM collection WHERE id = ?::uuid AND is_deleted = ?";
@@ -49,9 +50,48 @@ public class AJEntityCollection extends Model {
     public static final String SELECT_COLLECTION_MAX_SEQUENCEID =
         "SELECT max(sequence_id) FROM collection WHERE lesson_id = ?::uuid";
 
-    public static final String SELECT_COLLECTION_ASSESSMET_COUNT_BY_LESSON =
-        "SELECT count(id) as collection_count, format, lesson_id FROM collection WHERE lesson_id = ANY(?::uuid[]) AND unit_id = ?::uuid AND course_id = ?::uuid"
-            + " AND is_deleted = false GROUP BY lesson_id, format";
+    // Target course, unit and lesson are validated and authorized as part of
+    // the move, so zero rows returned means one of the checks failed
+    private static final String MOVE_COLLECTION =
+        "UPDATE collection co SET course_id = t.id, unit_id = t.unit_id, lesson_id = t.lesson_id, owner_id = t.owner_id,"
+            + " collaborator = NULL, sequence_id = ?, modifier_id = ?::uuid, updated_at = now() FROM (SELECT c.id, c.owner_id,"
+            + " u.unit_id, l.lesson_id FROM course c JOIN unit u ON u.course_id = c.id JOIN lesson l ON l.unit_id = u.unit_id AND"
+            + " l.course_id = c.id WHERE c.id = ?::uuid AND u.unit_id = ?::uuid AND l.lesson_id = ?::uuid AND c.is_deleted = false"
+            + " AND u.is_deleted = false AND l.is_deleted = false AND (c.owner_id = ?::uuid OR c.collaborator ?? ?)) t, (SELECT id"
+            + " FROM collection WHERE id = ?::uuid FOR UPDATE) src WHERE co.id = src.id AND co.is_deleted = false";
+    private static final String MOVE_COLLECTION_RETURNING = " RETURNING co.id";
+    // Collection in a course moves only if it is in given source course, unit
+    // and lesson which user is authorized for
+    public static final String MOVE_COLLECTION_FROM_LESSON = MOVE_COLLECTION
+        + " AND co.course_id = ?::uuid AND co.unit_id = ?::uuid AND co.lesson_id = ?::uuid AND EXISTS (SELECT 1 FROM course sc"
+        + " JOIN unit su ON su.course_id = sc.id JOIN lesson sl ON sl.unit_id = su.unit_id AND sl.course_id = sc.id WHERE sc.id ="
+        + " co.course_id AND su.unit_id = co.unit_id AND sl.lesson_id = co.lesson_id AND sc.is_deleted = false AND su.is_deleted ="
+        + " false AND sl.is_deleted = false AND (sc.owner_id = ?::uuid OR sc.collaborator ?? ?))" + MOVE_COLLECTION_RETURNING;
+    // Collection outside of course moves only if user owns it
+    public static final String MOVE_STANDALONE_COLLECTION =
+        MOVE_COLLECTION + " AND co.owner_id = ?::uuid" + MOVE_COLLECTION_RETURNING;
+
+    // Bulk move locks the collections up front, so that the rows which are
+    // re-parented are exactly those found here
+    public static final String SELECT_COLLECTIONS_TO_MOVE_FROM_LESSON =
+        "SELECT id FROM collection WHERE id = ANY(?::uuid[]) AND course_id = ?::uuid AND unit_id = ?::uuid"
+            + " AND lesson_id = ?::uuid AND is_deleted = false FOR UPDATE";
+    public static final String SELECT_STANDALONE_COLLECTIONS_TO_MOVE =
+        "SELECT id FROM collection WHERE id = ANY(?::uuid[]) AND owner_id = ?::uuid AND is_deleted = false"
+            + " FOR UPDATE";
+    // Collections get target sequence ids starting from given one, in the
+    // order of ids in the array
+    public static final String MOVE_COLLECTIONS =
+        "UPDATE collection co SET course_id = ?::uuid, unit_id = ?::uuid, lesson_id = ?::uuid, owner_id = ?::uuid,"
+            + " collaborator = NULL, sequence_id = ? + m.ord - 1, modifier_id = ?::uuid, updated_at = now() FROM"
+            + " unnest(?::uuid[]) WITH ORDINALITY AS m(id, ord) WHERE co.id = m.id AND co.is_deleted = false";
+
+    // Collections are also created and deleted by other modules, so their
+    // counts are aggregated on fetch
+    public static final String SELECT_COLLECTION_COUNTS_BY_LESSON =
+        "SELECT lesson_id, count(id) FILTER (WHERE format = 'collection') AS collection_count, count(id) FILTER (WHERE"
+            + " format = 'assessment') AS assessment_count FROM collection WHERE lesson_id = ANY(?::uuid[]) AND"
+            + " unit_id = ?::uuid AND course_id = ?::uuid AND is_deleted = false GROUP BY lesson_id";
 
     public static final String UUID_TYPE = "uuid";
     public static final String JSONB_TYPE = "jsonb";
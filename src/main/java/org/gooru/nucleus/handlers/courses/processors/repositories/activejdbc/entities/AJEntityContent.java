@@ -22,14 +22,30 @@ public class AJEntityContent extends Model {
     public static final String RESOURCE_COUNT = "resource_count";
     public static final String QUESTION_COUNT = "question_count";
 
-    public static final String SELECT_CONTENT_COUNT_BY_COLLECTION =
-        "SELECT count(id) as content_count, content_format, collection_id FROM content WHERE"
-            + " collection_id = ANY(?::uuid[]) AND course_id = ?::uuid AND unit_id = ?::uuid AND lesson_id = ?::uuid AND is_deleted = false GROUP BY"
-            + " collection_id, content_format";
-
-    public static final String SELECT_RESOURCES_BY_COURSE = 
-        "SELECT distinct(id), title, content_format, content_subformat FROM content con, jsonb_array_elements_text(con.taxonomy) as tx WHERE course_id = ?::uuid AND content_format ="
-            + " 'resource'::content_format_type AND is_deleted = false AND tx like ?";
-    
+    // Content is created and deleted by other modules, so its counts are
+    // aggregated on fetch
+    public static final String SELECT_CONTENT_COUNTS_BY_COLLECTION =
+        "SELECT collection_id, count(id) FILTER (WHERE content_format = 'resource') AS resource_count, count(id)"
+            + " FILTER (WHERE content_format = 'question') AS question_count FROM content WHERE collection_id ="
+            + " ANY(?::uuid[]) AND course_id = ?::uuid AND unit_id = ?::uuid AND lesson_id = ?::uuid AND is_deleted ="
+            + " false GROUP BY collection_id";
+
+    // Resources are paged on id, first page starts after nil uuid
+    public static final String SELECT_RESOURCES_BY_COURSE =
+        "SELECT id, title, content_format, content_subformat FROM content con WHERE course_id = ?::uuid AND content_format ="
+            + " 'resource'::content_format_type AND is_deleted = false AND EXISTS (SELECT 1 FROM"
+            + " jsonb_array_elements_text(con.taxonomy) AS tx WHERE tx like ?) AND id > ?::uuid ORDER BY id LIMIT ?";
+    public static final String SELECT_ALL_RESOURCES_BY_COURSE =
+        "SELECT id, title, content_format, content_subformat FROM content con WHERE course_id = ?::uuid AND content_format ="
+            + " 'resource'::content_format_type AND is_deleted = false AND EXISTS (SELECT 1 FROM"
+            + " jsonb_array_elements_text(con.taxonomy) AS tx WHERE tx like ?) ORDER BY id";
+    public static final String SELECT_RESOURCES_BY_COURSE_COUNT =
+        "SELECT count(id) FROM content con WHERE course_id = ?::uuid AND content_format = 'resource'::content_format_type"
+            + " AND is_deleted = false AND EXISTS (SELECT 1 FROM jsonb_array_elements_text(con.taxonomy) AS tx WHERE tx like ?)";
+    public static final String MOVE_CONTENT_OF_COLLECTIONS =
+        "UPDATE content SET course_id = ?::uuid, unit_id = ?::uuid, lesson_id = ?::uuid, modifier_id = ?::uuid WHERE"
+            + " collection_id = ANY(?::uuid[])";
+    public static final String RESOURCES_FIRST_PAGE_CURSOR = "00000000-0000-0000-0000-000000000000";
+
     public static final List<String> RESOURCES_BY_COURSE_FIELDS = Arrays.asList(ID, TITLE, CONTENT_FORMAT, CONTENT_SUBFORMAT);
 }
@@ -69,12 +69,22 @@ public class AJEntityCourse extends Model {
         "SELECT id, owner_id, collaborator FROM course WHERE id = ?::uuid AND is_deleted = ? AND (owner_id = ?::uuid OR collaborator ?? ?)";
     public static final String SELECT_COURSE_TO_VALIDATE =
         "SELECT id, owner_id, publish_status, collaborator FROM course WHERE id = ?::uuid AND is_deleted = ?";
+    // Course can be copied by its owner and collaborators, and by anyone once
+    // it is published
+    public static final String SELECT_COURSE_TO_COPY =
+        "SELECT id FROM course WHERE id = ?::uuid AND is_deleted = false AND (publish_status = 'published'::publish_status_type"
+            + " OR owner_id = ?::uuid OR collaborator ?? ?)";
     public static final String SELECT_COURSE =
         "SELECT id, title, description, created_at, updated_at, owner_id, creator_id, modifier_id, original_creator_id, original_course_id, publish_status,"
             + " publish_date, thumbnail, metadata, taxonomy, collaborator, visible_on_profile, sequence_id, subject_bucket,"
-            + " license, creator_system, use_case FROM course WHERE id = ?::uuid AND is_deleted = ?";
+            + " license, creator_system, use_case FROM course WHERE id = ? AND is_deleted = ?";
+    public static final String SELECT_COURSE_FIELDS = "SELECT %s FROM course WHERE id = ? AND is_deleted = ?";
+    public static final String SELECT_COURSES_BY_IDS =
+        "SELECT id, title, description, created_at, updated_at, owner_id, creator_id, modifier_id, original_creator_id, original_course_id, publish_status,"
+            + " publish_date, thumbnail, metadata, taxonomy, collaborator, visible_on_profile, sequence_id, subject_bucket,"
+            + " license, creator_system, use_case FROM course WHERE id = ANY(?::uuid[]) AND is_deleted = false";
     public static final String SELECT_MAX_SEQUENCE_FOR_SUBJECT_BUCKET =
-        "SELECT MAX(sequence_id) FROM course WHERE owner_id = ?::uuid AND" + " subject_bucket = ?";
+        "SELECT MAX(sequence_id) FROM course WHERE owner_id = ?::uuid AND" + " lower(subject_bucket) = ?";
     public static final String SELECT_MAX_SEQUENCE_FOR_NON_SUBJECT_BUCKET =
         "SELECT MAX(sequence_id) FROM course WHERE owner_id = ?::uuid" + " AND subject_bucket IS NULL";
     public static final String SELECT_COURSE_TO_REORDER =
@@ -83,6 +93,8 @@ public class AJEntityCourse extends Model {
         "UPDATE course SET sequence_id = ?, updated_at = now() WHERE id = ?::uuid AND subject_bucket"
             + " = ? AND owner_id = ?::uuid";
     public static final String SELECT_SUBJECT_BUCKET = "SELECT subject_bucket FROM course WHERE id = ?::uuid";
+    public static final String UPDATE_COURSES_TIMESTAMP =
+        "UPDATE course SET updated_at = now() WHERE id = ANY(?::uuid[])";
 
     public static final String UUID_TYPE = "uuid";
     public static final String JSONB_TYPE = "jsonb";
@@ -50,10 +50,12 @@ public class AJEntityLesson extends Model {
         "SELECT lesson_id, unit_id, course_id FROM lesson WHERE lesson_id = ?::uuid AND unit_id = ?::uuid AND course_id = ?::uuid AND is_deleted = ?";
     public static final String SELECT_LESSON =
         "SELECT lesson_id, unit_id, course_id, title, created_at, updated_at, owner_id, creator_id, modifier_id, original_creator_id, "
-            + "original_lesson_id, metadata, taxonomy, sequence_id, creator_system FROM lesson WHERE lesson_id = ?::uuid AND unit_id = ?::uuid AND "
-            + "course_id = ?::uuid and is_deleted = ?";
+            + "original_lesson_id, metadata, taxonomy, sequence_id, creator_system FROM lesson WHERE lesson_id = ? AND unit_id = ? AND "
+            + "course_id = ? and is_deleted = ?";
+    public static final String SELECT_LESSON_FIELDS =
+        "SELECT %s FROM lesson WHERE lesson_id = ? AND unit_id = ? AND course_id = ? AND is_deleted = ?";
     public static final String SELECT_LESSON_SUMMARY =
-        "SELECT lesson_id, title, sequence_id FROM lesson WHERE unit_id = ?::uuid AND is_deleted = ? order by sequence_id asc";
+        "SELECT lesson_id, title, sequence_id FROM lesson WHERE unit_id = ? AND is_deleted = ? order by sequence_id asc";
     public static final String SELECT_LESSON_MAX_SEQUENCEID =
         "SELECT max(sequence_id) FROM lesson WHERE course_id = ?::uuid AND unit_id = ?::uuid";
     public static final String SELECT_LESSON_OF_COURSE =
@@ -61,12 +63,12 @@ public class AJEntityLesson extends Model {
     public static final String REORDER_QUERY =
         "UPDATE lesson SET sequence_id = ?, modifier_id = ?::uuid, updated_at = now() WHERE lesson_id = ?::uuid AND unit_id = ?::uuid AND course_id"
             + " = ?::uuid AND is_deleted = ?";
-    public static final String SELECT_LESSON_COUNT_MULTIPLE =
-        "SELECT count(lesson_id) as lesson_count, unit_id FROM lesson WHERE unit_id = ANY(?::uuid[]) AND course_id = ?::uuid AND is_deleted = false"
-            + " GROUP BY unit_id";
 
     public static final List<String> INSERTABLE_FIELDS = Arrays.asList(TITLE, METADATA, TAXONOMY, CREATOR_SYSTEM);
     public static final List<String> UPDATABLE_FIELDS = Arrays.asList(TITLE, METADATA, TAXONOMY);
+    public static final List<String> BULK_INSERT_COLUMNS = Arrays.asList(COURSE_ID, UNIT_ID, OWNER_ID, CREATOR_ID,
+        MODIFIER_ID, IS_DELETED, SEQUENCE_ID, CREATED_AT, UPDATED_AT, TITLE, METADATA, TAXONOMY, CREATOR_SYSTEM);
+    public static final List<String> UUID_FIELDS = Arrays.asList(COURSE_ID, UNIT_ID, OWNER_ID, CREATOR_ID, MODIFIER_ID);
 
     public static final List<String> COLLECTION_MOVE_NOTNULL_FIELDS = Arrays.asList("collection_id");
 
@@ -39,6 +39,8 @@ public class AJEntityUnit extends Model {
     public static final String CREATOR_SYSTEM = "creator_system";
 
     public static final String UNIT_SUMMARY = "unit_summary";
+    public static final String UNIT_COUNT = "unit_count";
+    public static final String LESSON_COUNT = "lesson_count";
 
     public static final List<String> NOTNULL_FIELDS = Arrays.asList(TITLE);
     public static final List<String> JSON_FIELDS = Arrays.asList(METADATA, TAXONOMY);
@@ -51,26 +53,51 @@ public class AJEntityUnit extends Model {
         Arrays.asList(TITLE, BIG_IDEAS, ESSENTIAL_QUESTIONS, METADATA, TAXONOMY, CREATOR_SYSTEM);
     public static final List<String> UPDATABLE_FIELDS =
         Arrays.asList(TITLE, BIG_IDEAS, ESSENTIAL_QUESTIONS, METADATA, TAXONOMY);
+    public static final List<String> BULK_INSERT_COLUMNS = Arrays.asList(COURSE_ID, OWNER_ID, CREATOR_ID, MODIFIER_ID,
+        IS_DELETED, SEQUENCE_ID, CREATED_AT, UPDATED_AT, TITLE, BIG_IDEAS, ESSENTIAL_QUESTIONS, METADATA, TAXONOMY,
+        CREATOR_SYSTEM);
+    public static final List<String> UUID_FIELDS = Arrays.asList(COURSE_ID, OWNER_ID, CREATOR_ID, MODIFIER_ID);
 
-    public static final List<String> UNIT_SUMMARY_FIELDS = Arrays.asList(UNIT_ID, TITLE, SEQUENCE_ID);
+    public static final List<String> UNIT_SUMMARY_FIELDS = Arrays.asList(UNIT_ID, TITLE, SEQUENCE_ID, LESSON_COUNT);
 
     public static final List<String> LESSON_MOVE_NOTNULL_FIELDS = Arrays.asList("course_id", "unit_id", "lesson_id");
 
     public static final String SELECT_UNIT =
         "SELECT course_id, unit_id, title, created_at, updated_at, owner_id, creator_id, modifier_id, original_creator_id, original_unit_id,"
-            + " big_ideas, essential_questions, metadata, taxonomy, sequence_id, creator_system FROM unit WHERE course_id = ?::uuid AND"
-            + " unit_id = ?::uuid AND is_deleted = ?";
+            + " big_ideas, essential_questions, metadata, taxonomy, sequence_id, creator_system FROM unit WHERE course_id = ? AND"
+            + " unit_id = ? AND is_deleted = ?";
 
+    public static final String SELECT_UNIT_FIELDS =
+        "SELECT %s FROM unit WHERE course_id = ? AND unit_id = ? AND is_deleted = ?";
     public static final String SELECT_UNIT_TO_VALIDATE =
         "SELECT unit_id, course_id FROM unit WHERE unit_id = ?::uuid AND course_id = ?::uuid AND is_deleted = ?";
     public static final String SELECT_UNIT_SUMMARY =
-        "SELECT unit_id, title, sequence_id FROM unit WHERE course_id = ?::uuid AND is_deleted = ? order by sequence_id asc";
+        "SELECT unit_id, title, sequence_id, lesson_count FROM unit WHERE course_id = ? AND is_deleted = ? order by sequence_id asc";
+    public static final String SELECT_UNIT_COUNT_MULTIPLE =
+        "SELECT count(unit_id) as unit_count, course_id FROM unit WHERE course_id = ANY(?::uuid[]) AND is_deleted = false"
+            + " GROUP BY course_id";
     public static final String SELECT_UNIT_MAX_SEQUENCEID =
         "SELECT max(sequence_id) FROM unit WHERE course_id = ?::uuid";
     public static final String SELECT_UNIT_OF_COURSE =
-        "SELECT unit_id FROM unit WHERE course_id = ?::uuid AND is_deleted = ?";
+        "SELECT unit_id FROM unit WHERE course_id = ? AND is_deleted = ?";
+    public static final String UPDATE_LESSON_COUNT =
+        "UPDATE unit SET lesson_count = lesson_count + ? WHERE unit_id = ?::uuid";
+    public static final String RECONCILE_LESSON_COUNT =
+        "UPDATE unit u SET lesson_count = c.lesson_count FROM (SELECT un.unit_id, count(l.lesson_id) AS lesson_count"
+            + " FROM unit un LEFT JOIN lesson l ON l.unit_id = un.unit_id AND l.is_deleted = false WHERE"
+            + " un.is_deleted = false GROUP BY un.unit_id) c WHERE u.unit_id = c.unit_id AND u.lesson_count IS"
+            + " DISTINCT FROM c.lesson_count";
+    // Field is updated only when flag preceding its value is set. Flag/value
+    // pairs are in the order of UPDATABLE_FIELDS. Authorization and existence
+    // are part of the condition, so zero rows updated means one of them failed
+    public static final String UPDATE_UNIT_IF_AUTHORIZED =
+        "UPDATE unit u SET title = CASE WHEN ? THEN ? ELSE title END, big_ideas = CASE WHEN ? THEN ? ELSE big_ideas END,"
+            + " essential_questions = CASE WHEN ? THEN ? ELSE essential_questions END, metadata = CASE WHEN ? THEN ?::jsonb ELSE"
+            + " metadata END, taxonomy = CASE WHEN ? THEN ?::jsonb ELSE taxonomy END, modifier_id = ?::uuid, updated_at = now()"
+            + " WHERE u.unit_id = ?::uuid AND u.course_id = ?::uuid AND u.is_deleted = false AND EXISTS (SELECT 1 FROM course c"
+            + " WHERE c.id = u.course_id AND c.is_deleted = false AND (c.owner_id = ?::uuid OR c.collaborator ?? ?))";
     public static final String REORDER_QUERY =
-        "UPDATE unit SET sequence_id = ?, modifier_id = ?::uuid, updated_at = now() WHERE unit_id = ?::uuid and course_id = ?::uuid and is_deleted = ?";
+        "UPDATE unit SET sequence_id = ?, modifier_id = ?, updated_at = now() WHERE unit_id = ? and course_id = ? and is_deleted = ?";
 
     public static final String UUID_TYPE = "uuid";
     public static final String JSONB_TYPE = "jsonb";
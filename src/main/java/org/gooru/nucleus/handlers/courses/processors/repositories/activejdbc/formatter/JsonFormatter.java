@@ -1,5 +1,7 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.formatter;
 
+import java.util.Map;
+
 import org.javalite.activejdbc.LazyList;
 import org.javalite.activejdbc.Model;
 
@@ -11,4 +13,6 @@ public interface JsonFormatter {
     <T extends Model> String toJson(T model);
 
     <T extends Model> String toJson(LazyList<T> modelList);
+
+    String toJson(Map<String, Object> row);
 }
@@ -3,6 +3,7 @@ package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.fo
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.javalite.activejdbc.LazyList;
@@ -67,6 +68,31 @@ class SimpleJsonFormatter implements JsonFormatter {
 
     }
 
+    /*
+     * Row is expected to be keyed by lower cased column labels, as handed out
+     * by Base.findAll, Base.find or StreamingQuery
+     */
+    @Override
+    public String toJson(Map<String, Object> row) {
+        StringBuilder sb = new StringBuilder(CAPACITY);
+        sb.append('{');
+        String[] names = this.attributes != null ? this.attributes : lowerCased(row.keySet());
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            if (pretty) {
+                sb.append("\n  ");
+            }
+            valueToJson(names[i], row.get(names[i]), sb);
+        }
+        if (pretty) {
+            sb.append('\n');
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
     private <T extends Model> void modelToJson(T model, StringBuilder sb, String indent) {
         if (pretty) {
             sb.append(indent);
@@ -89,31 +115,7 @@ class SimpleJsonFormatter implements JsonFormatter {
                 sb.append("\n  ").append(indent);
             }
             String name = names[i];
-            sb.append('"').append(name).append("\":");
-            Object v = model.get(name);
-            if (v == null) {
-                sb.append("null");
-            } else if (v instanceof Number || v instanceof Boolean) {
-                sb.append(v);
-            } else if (v instanceof Date) {
-                sb.append('"').append(Convert.toIsoString((Date) v)).append('"');
-            } else if (v instanceof PGobject && ((PGobject) v).getType().equalsIgnoreCase(JSONB_TYPE)) {
-                sb.append(Convert.toString(v));
-            } else if (v instanceof String){
-                sb.append('"');
-                try {
-                    sb.append(StringEscapeUtils.escapeJava(String.valueOf(v)));
-                } catch (Exception e) {
-                    LOGGER
-                        .warn("Failed to parse value of field '{}', will use default string without conversion ", name);
-                    sb.append(Convert.toString(v));
-                }
-                sb.append('"');
-            } else {
-                sb.append('"');
-                sb.append(Convert.toString(v));
-                sb.append('"');
-            }
+            valueToJson(name, model.get(name), sb);
         }
         if (pretty) {
             sb.append('\n').append(indent);
@@ -121,6 +123,33 @@ class SimpleJsonFormatter implements JsonFormatter {
         sb.append('}');
     }
 
+    private static void valueToJson(String name, Object v, StringBuilder sb) {
+        sb.append('"').append(name).append("\":");
+        if (v == null) {
+            sb.append("null");
+        } else if (v instanceof Number || v instanceof Boolean) {
+            sb.append(v);
+        } else if (v instanceof Date) {
+            sb.append('"').append(Convert.toIsoString((Date) v)).append('"');
+        } else if (v instanceof PGobject && ((PGobject) v).getType().equalsIgnoreCase(JSONB_TYPE)) {
+            sb.append(Convert.toString(v));
+        } else if (v instanceof String){
+            sb.append('"');
+            try {
+                sb.append(StringEscapeUtils.escapeJava(String.valueOf(v)));
+            } catch (Exception e) {
+                LOGGER
+                    .warn("Failed to parse value of field '{}', will use default string without conversion ", name);
+                sb.append(Convert.toString(v));
+            }
+            sb.append('"');
+        } else {
+            sb.append('"');
+            sb.append(Convert.toString(v));
+            sb.append('"');
+        }
+    }
+
     private static String[] lowerCased(Collection<String> collection) {
         String[] array = new String[collection.size()];
         int i = 0;
@@ -0,0 +1,118 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.monitoring;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps a data source so that every statement executed on its connections is
+ * timed and reported to the listener along with the bound parameters.
+ * <p>
+ * Only the execution is timed, rows fetched lazily afterwards from result set
+ * are not accounted. Everything else is delegated as is, including unwrap(),
+ * so callers looking for the pool underneath still find it.
+ */
+public final class QueryInterceptor {
+
+    private static final Object[] NO_PARAMS = new Object[0];
+
+    private QueryInterceptor() {
+        throw new AssertionError();
+    }
+
+    public static DataSource wrap(DataSource dataSource, QueryListener listener) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Connection) {
+                return wrapConnection((Connection) result, listener);
+            }
+            return result;
+        });
+    }
+
+    private static Connection wrapConnection(Connection connection, QueryListener listener) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof PreparedStatement && args != null && args.length > 0 && args[0] instanceof String) {
+                return wrapPreparedStatement((PreparedStatement) result, (String) args[0], listener);
+            }
+            if (result instanceof Statement && method.getName().equals("createStatement")) {
+                return wrapStatement((Statement) result, listener);
+            }
+            return result;
+        });
+    }
+
+    private static Statement wrapStatement(Statement statement, QueryListener listener) {
+        return proxy(Statement.class, statement, (target, method, args) -> {
+            if (isExecute(method) && args != null && args.length > 0 && args[0] instanceof String) {
+                return timed(target, method, args, (String) args[0], NO_PARAMS, listener);
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static PreparedStatement wrapPreparedStatement(PreparedStatement statement, String sql,
+        QueryListener listener) {
+        List<Object> params = new ArrayList<>();
+        return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0];
+                while (params.size() < index) {
+                    params.add(null);
+                }
+                params.set(index - 1, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                params.clear();
+            } else if (isExecute(method)) {
+                if (args != null && args.length > 0 && args[0] instanceof String) {
+                    return timed(target, method, args, (String) args[0], NO_PARAMS, listener);
+                }
+                return timed(target, method, args, sql, params.toArray(), listener);
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static boolean isExecute(Method method) {
+        return method.getName().startsWith("execute");
+    }
+
+    private static Object timed(Object target, Method method, Object[] args, String sql, Object[] params,
+        QueryListener listener) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invoke(target, method, args);
+        } finally {
+            listener.onStatement(sql, params, System.nanoTime() - start);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Delegation {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Delegation delegation) {
+        InvocationHandler handler = (proxy, method, args) -> delegation.invoke(target, method, args);
+        return (T) Proxy.newProxyInstance(QueryInterceptor.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+}
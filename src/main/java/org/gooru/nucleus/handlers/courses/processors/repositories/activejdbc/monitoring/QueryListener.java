@@ -0,0 +1,11 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.monitoring;
+
+/**
+ * Receives the statements executed through a data source wrapped by
+ * QueryInterceptor. It is called on the thread which executed the statement,
+ * so implementations should hand over anything expensive.
+ */
+public interface QueryListener {
+
+    void onStatement(String sql, Object[] params, long elapsedNanos);
+}
@@ -0,0 +1,106 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.monitoring;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityClass;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCollection;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityContent;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityCourse;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityLesson;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityMetadataReference;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.entities.AJEntityUnit;
+
+/**
+ * Maps the SQL text back to the name of the constant it is defined by, e.g.
+ * AJEntityCourse.SELECT_COURSE. Names are collected once by reflection over
+ * static string constants of entities which look like statements.
+ * <p>
+ * Statements filled in from a constant, like the column list of projected
+ * selects, are registered against that constant when they are built, up to a
+ * bound. Statements generated by ActiveJDBC itself (model save, where clauses
+ * etc) do not have a constant, so they are named after their leading keywords
+ * and table.
+ */
+public final class StatementNames {
+
+    private static final List<Class<?>> SOURCES = Arrays.asList(AJEntityCourse.class, AJEntityUnit.class,
+        AJEntityLesson.class, AJEntityCollection.class, AJEntityContent.class, AJEntityClass.class,
+        AJEntityMetadataReference.class);
+    private static final List<String> STATEMENT_PREFIXES =
+        Arrays.asList("SELECT ", "UPDATE ", "INSERT ", "DELETE ", "WITH ");
+    private static final int UNNAMED_PREFIX_WORDS = 4;
+    private static final int MAX_DERIVED_NAMES = 1000;
+    private static final Map<String, String> NAMES = collectNames();
+    private static final Map<String, String> DERIVED_NAMES = new ConcurrentHashMap<>();
+
+    private StatementNames() {
+        throw new AssertionError();
+    }
+
+    public static String nameOf(String sql) {
+        if (sql == null) {
+            return "unknown";
+        }
+        String name = NAMES.get(sql);
+        if (name == null) {
+            name = DERIVED_NAMES.get(sql);
+        }
+        return name != null ? name : unnamed(sql);
+    }
+
+    /*
+     * Names statement built from given constant after that constant. Once the
+     * bound is reached, further statements are reported as unnamed
+     */
+    public static void registerDerived(String sql, String template) {
+        String name = NAMES.get(template);
+        if (name != null && DERIVED_NAMES.size() < MAX_DERIVED_NAMES) {
+            DERIVED_NAMES.putIfAbsent(sql, name);
+        }
+    }
+
+    // Whether statement is one of the entity constants, as opposed to generated
+    // by ActiveJDBC or defined elsewhere
+    public static boolean isNamed(String sql) {
+        return sql != null && (NAMES.containsKey(sql) || DERIVED_NAMES.containsKey(sql));
+    }
+
+    private static String unnamed(String sql) {
+        String[] words = sql.trim().split("\\s+", UNNAMED_PREFIX_WORDS + 1);
+        int count = Math.min(words.length, UNNAMED_PREFIX_WORDS);
+        return "unnamed: " + String.join(" ", Arrays.asList(words).subList(0, count));
+    }
+
+    private static Map<String, String> collectNames() {
+        Map<String, String> names = new HashMap<>();
+        for (Class<?> source : SOURCES) {
+            for (Field field : source.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (field.getType() != String.class || !Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers)) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    String value = (String) field.get(null);
+                    if (value != null && isStatement(value)) {
+                        names.putIfAbsent(value, source.getSimpleName() + '.' + field.getName());
+                    }
+                } catch (IllegalAccessException | SecurityException e) {
+                    // Not able to read it, it will be reported as unnamed
+                }
+            }
+        }
+        return names;
+    }
+
+    private static boolean isStatement(String value) {
+        String upper = value.trim().toUpperCase();
+        return STATEMENT_PREFIXES.stream().anyMatch(upper::startsWith);
+    }
+}
@@ -0,0 +1,8 @@
+package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.monitoring;
+
+/**
+ * This package contains the statement interception used to time the queries
+ * issued by repository layer. Statements are identified by the name of the SQL
+ * constant defined in entities, so that a regressing query can be traced back
+ * to the code issuing it
+ */
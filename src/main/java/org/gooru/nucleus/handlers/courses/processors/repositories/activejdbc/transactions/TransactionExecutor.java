@@ -1,7 +1,12 @@
 package org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.transactions;
 
+import org.gooru.nucleus.handlers.courses.app.components.CourseTouchCoalescer;
 import org.gooru.nucleus.handlers.courses.app.components.DataSourceRegistry;
+import org.gooru.nucleus.handlers.courses.app.components.EventOutboxRelay;
 import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbhandlers.DBHandler;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.CourseLocks;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.EventOutbox;
+import org.gooru.nucleus.handlers.courses.processors.repositories.activejdbc.dbutils.RetryableFailures;
 import org.gooru.nucleus.handlers.courses.processors.responses.ExecutionResult;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponse;
 import org.gooru.nucleus.handlers.courses.processors.responses.MessageResponseFactory;
@@ -9,7 +14,14 @@ import org.javalite.activejdbc.Base;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.vertx.core.json.JsonObject;
+
+import javax.sql.DataSource;
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Created by ashish on 11/1/16.
@@ -17,19 +29,114 @@ import java.sql.SQLException;
 public class TransactionExecutor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TransactionExecutor.class);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MS = 20;
+    private static final long MAX_BACKOFF_MS = 200;
+    private static final Map<String, LongAdder> RETRIES = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> RETRIES_EXHAUSTED = new ConcurrentHashMap<>();
 
-    public MessageResponse executeTransaction(DBHandler handler) {
+    /*
+     * Executor does not hold any state, so one instance can be shared across
+     * threads. Handlers asking for read only pool run on default pool with a
+     * read only transaction when the pool is not configured. Session token goes
+     * along with the event when it is written to outbox.
+     */
+    public MessageResponse executeTransaction(DBHandler handler, boolean useReadOnlyPool, String sessionToken) {
         // First validations without any DB
         ExecutionResult<MessageResponse> executionResult = handler.checkSanity();
         // Now we need to run with transaction, if we are going to continue
         if (executionResult.continueProcessing()) {
-            executionResult = executeWithTransaction(handler);
+            DataSource readOnlyDataSource = DataSourceRegistry.getInstance().getReadOnlyDataSource();
+            if (useReadOnlyPool && readOnlyDataSource != null) {
+                executionResult = executeReadOnly(handler, readOnlyDataSource);
+            } else {
+                executionResult = executeWithTransaction(handler, sessionToken);
+            }
         }
         return executionResult.result();
 
     }
 
-    private ExecutionResult<MessageResponse> executeWithTransaction(DBHandler handler) {
+    /*
+     * Connections of read only pool are already in read only and auto commit
+     * mode, so there is nothing to toggle and no transaction to open or commit,
+     * which saves those round trips on every read. Each statement runs with its
+     * own snapshot, which is what read committed transaction gave us anyway.
+     */
+    private ExecutionResult<MessageResponse> executeReadOnly(DBHandler handler, DataSource dataSource) {
+        ExecutionResult<MessageResponse> executionResult;
+
+        try {
+            Base.open(dataSource);
+            executionResult = handler.validateRequest();
+            if (executionResult.continueProcessing()) {
+                executionResult = handler.executeRequest();
+            }
+            return executionResult;
+        } catch (Throwable e) {
+            LOGGER.error("Caught exception while reading, need to abort", e);
+            return new ExecutionResult<>(MessageResponseFactory.createInternalErrorResponse(e.getMessage()),
+                ExecutionResult.ExecutionStatus.FAILED);
+        } finally {
+            Base.close();
+        }
+    }
+
+    /*
+     * Transient failures like deadlocks are retried with a jittered back off,
+     * so that they do not turn in to internal errors for the user. Handler
+     * runs from validation again on every attempt.
+     */
+    private ExecutionResult<MessageResponse> executeWithTransaction(DBHandler handler, String sessionToken) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return attemptWithTransaction(handler, sessionToken);
+            } catch (Throwable e) {
+                boolean retryable = RetryableFailures.isRetryable(e);
+                String operation = handler.getClass().getSimpleName();
+                if (retryable && attempt < MAX_ATTEMPTS) {
+                    RETRIES.computeIfAbsent(operation, key -> new LongAdder()).increment();
+                    LOGGER.warn("transient failure in attempt {} of {}, will retry: {}", attempt, operation,
+                        e.getMessage());
+                    backOff(attempt);
+                    continue;
+                }
+                if (retryable) {
+                    RETRIES_EXHAUSTED.computeIfAbsent(operation, key -> new LongAdder()).increment();
+                }
+                LOGGER.error("Caught exception, need to rollback and abort", e);
+                // Most probably we do not know what to do with this, so send
+                // internal error
+                return new ExecutionResult<>(MessageResponseFactory.createInternalErrorResponse(e.getMessage()),
+                    ExecutionResult.ExecutionStatus.FAILED);
+            }
+        }
+    }
+
+    public static JsonObject retryMetrics() {
+        JsonObject retries = new JsonObject();
+        RETRIES.forEach((operation, count) -> retries.put(operation, count.sum()));
+        JsonObject exhausted = new JsonObject();
+        RETRIES_EXHAUSTED.forEach((operation, count) -> exhausted.put(operation, count.sum()));
+        return new JsonObject().put("retries", retries).put("exhausted", exhausted);
+    }
+
+    private static void backOff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << (attempt - 1));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * When outbox relay is enabled, event of a successful mutation is written
+     * in the same transaction and relay is nudged once it commits, so that
+     * event goes out exactly when the mutation is committed
+     */
+    private ExecutionResult<MessageResponse> attemptWithTransaction(DBHandler handler, String sessionToken)
+        throws SQLException {
         ExecutionResult<MessageResponse> executionResult;
 
         try {
@@ -39,25 +146,38 @@ public class TransactionExecutor {
                 Base.connection().setReadOnly(true);
             }
             Base.openTransaction();
+            CourseLocks.lock(handler.coursesToLock());
             executionResult = handler.validateRequest();
             if (executionResult.continueProcessing()) {
                 executionResult = handler.executeRequest();
                 if (executionResult.isSuccessful()) {
+                    MessageResponse response = executionResult.result();
+                    boolean outboxed = response != null && response.event() != null
+                        && EventOutboxRelay.getInstance().isEnabled();
+                    if (outboxed) {
+                        EventOutbox.append(response.event(), sessionToken);
+                        executionResult = new ExecutionResult<>(response.withoutEvent(),
+                            ExecutionResult.ExecutionStatus.SUCCESSFUL);
+                    }
+                    CourseTouchCoalescer.getInstance().beforeCommit();
                     Base.commitTransaction();
+                    CourseTouchCoalescer.getInstance().afterCommit();
+                    if (outboxed) {
+                        EventOutboxRelay.getInstance().nudge();
+                    }
                 } else {
                     Base.rollbackTransaction();
+                    CourseTouchCoalescer.getInstance().discard();
                 }
             } else {
                 Base.rollbackTransaction();
+                CourseTouchCoalescer.getInstance().discard();
             }
             return executionResult;
         } catch (Throwable e) {
             Base.rollbackTransaction();
-            LOGGER.error("Caught exception, need to rollback and abort", e);
-            // Most probably we do not know what to do with this, so send
-            // internal error
-            return new ExecutionResult<>(MessageResponseFactory.createInternalErrorResponse(e.getMessage()),
-                ExecutionResult.ExecutionStatus.FAILED);
+            CourseTouchCoalescer.getInstance().discard();
+            throw e;
         } finally {
             if (handler.handlerReadOnly()) {
                 // restore the settings
@@ -13,14 +13,15 @@ import org.slf4j.LoggerFactory;
 public class MessageResponse {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MessageResponse.class);
+    private final String status;
     private final DeliveryOptions deliveryOptions;
     private final JsonObject reply;
     private final JsonObject event;
 
     // Private constructor
     private MessageResponse(JsonObject response) {
-        this.deliveryOptions = new DeliveryOptions().addHeader(MessageConstants.MSG_OP_STATUS,
-            response.getString(MessageConstants.MSG_OP_STATUS));
+        this.status = response.getString(MessageConstants.MSG_OP_STATUS);
+        this.deliveryOptions = new DeliveryOptions().addHeader(MessageConstants.MSG_OP_STATUS, this.status);
         this.reply = response.getJsonObject(MessageConstants.RESP_CONTAINER_MBUS);
         this.event = response.getJsonObject(MessageConstants.RESP_CONTAINER_EVENT);
     }
@@ -37,6 +38,22 @@ public class MessageResponse {
         return this.event;
     }
 
+    // Status and reply of response, without the event, for it to be replayed
+    public static JsonObject storableOf(MessageResponse response) {
+        return new JsonObject().put(MessageConstants.MSG_OP_STATUS, response.status)
+            .put(MessageConstants.RESP_CONTAINER_MBUS, response.reply.copy());
+    }
+
+    // Same response once its event is handed over to be sent otherwise
+    public MessageResponse withoutEvent() {
+        return new MessageResponse(new JsonObject().put(MessageConstants.MSG_OP_STATUS, this.status)
+            .put(MessageConstants.RESP_CONTAINER_MBUS, this.reply));
+    }
+
+    public static MessageResponse replayOf(JsonObject stored) {
+        return new MessageResponse(stored);
+    }
+
     // Public builder with validations
     public static class Builder {
         private String status;
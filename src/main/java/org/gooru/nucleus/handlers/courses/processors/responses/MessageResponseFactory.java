@@ -1,6 +1,7 @@
 package org.gooru.nucleus.handlers.courses.processors.responses;
 
 import io.vertx.core.json.JsonObject;
+import org.gooru.nucleus.handlers.courses.constants.HttpConstants;
 import org.gooru.nucleus.handlers.courses.constants.MessageConstants;
 import org.gooru.nucleus.handlers.courses.processors.events.EventBuilder;
 
@@ -58,6 +59,26 @@ public class MessageResponseFactory {
             .setEventData(eventBuilder.build()).build();
     }
 
+    public static MessageResponse createPostResponse(JsonObject responseBody, EventBuilder eventBuilder) {
+        return new MessageResponse.Builder().successful().setStatusCreated().setContentTypeJson()
+            .setResponseBody(responseBody).setEventData(eventBuilder.build()).build();
+    }
+
+    public static MessageResponse createAcceptedResponse(String location) {
+        return new MessageResponse.Builder().successful().setHeader("Location", location)
+            .setStatusHttpCode(HttpConstants.HttpStatus.ACCEPTED).build();
+    }
+
+    public static MessageResponse createConflictResponse(String message) {
+        return new MessageResponse.Builder().failed().setStatusHttpCode(HttpConstants.HttpStatus.CONFLICT)
+            .setContentTypeJson().setResponseBody(new JsonObject().put(MessageConstants.MSG_MESSAGE, message)).build();
+    }
+
+    public static MessageResponse createTooManyRequestsResponse(String message) {
+        return new MessageResponse.Builder().failed().setStatusHttpCode(HttpConstants.HttpStatus.TOO_MANY_REQUESTS)
+            .setContentTypeJson().setResponseBody(new JsonObject().put(MessageConstants.MSG_MESSAGE, message)).build();
+    }
+
     public static MessageResponse createNoContentResponse() {
         return new MessageResponse.Builder().successful().setStatusNoOutput().build();
     }
@@ -0,0 +1,68 @@
+package org.gooru.nucleus.handlers.courses.processors.utils;
+
+import java.util.UUID;
+
+/**
+ * Parses ids of canonical uuid form (8-4-4-4-12 hex digits) without going
+ * through UUID.fromString, which splits the string and reports failure by
+ * throwing. Invalid input results in null, so that callers can validate and
+ * parse in one go.
+ * <p>
+ * Parsed ids can be bound to statements as is, postgres driver sends them as
+ * native uuid and queries do not need to cast them.
+ */
+public final class UuidUtils {
+
+    private static final int UUID_LENGTH = 36;
+
+    private UuidUtils() {
+        throw new AssertionError();
+    }
+
+    public static UUID parse(String value) {
+        if (value == null || value.length() != UUID_LENGTH) {
+            return null;
+        }
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int digit = hexValue(c);
+            if (digit < 0) {
+                return null;
+            }
+            if (i < 18) {
+                msb = (msb << 4) | digit;
+            } else {
+                lsb = (lsb << 4) | digit;
+            }
+        }
+        return new UUID(msb, lsb);
+    }
+
+    public static boolean isValid(String value) {
+        return parse(value) != null;
+    }
+
+    /*
+     * Character.digit() is not used as it also accepts non ASCII digits
+     */
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}